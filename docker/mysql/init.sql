@@ -5,9 +5,11 @@ CREATE INDEX IF NOT EXISTS idx_outbox_status_next_retry ON outbox(status, next_r
 CREATE INDEX IF NOT EXISTS idx_outbox_aggregate_version ON outbox(aggregate_id, version);
 CREATE INDEX IF NOT EXISTS idx_outbox_created_at ON outbox(created_at);
 CREATE INDEX IF NOT EXISTS idx_outbox_status_created ON outbox(status, created_at);
+CREATE INDEX IF NOT EXISTS idx_outbox_claim ON outbox(status, ready, next_retry_at, partition_key);
+CREATE INDEX IF NOT EXISTS idx_outbox_status_id ON outbox(status, id);
 
--- Create a view for monitoring
-CREATE OR REPLACE VIEW outbox_stats AS
+-- Create a view for monitoring (outbox_stats is the counter table maintained by the library)
+CREATE OR REPLACE VIEW outbox_status_summary AS
 SELECT 
     status,
     COUNT(*) as count,
@@ -18,4 +20,4 @@ FROM outbox
 GROUP BY status;
 
 -- Grant additional privileges for monitoring
-GRANT SELECT ON outbox_stats TO 'outbox_user'@'%'; 
\ No newline at end of file
+GRANT SELECT ON outbox_status_summary TO 'outbox_user'@'%'; 
\ No newline at end of file
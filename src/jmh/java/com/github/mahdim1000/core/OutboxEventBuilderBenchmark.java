@@ -0,0 +1,59 @@
+package com.github.mahdim1000.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation path of the fluent builders, up to but excluding {@code execute()}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OutboxEventBuilderBenchmark {
+
+    private static final Object PAYLOAD = new Object();
+
+    private OutboxManager manager;
+    private List<String> batchPayloads;
+
+    @Setup
+    public void setUp() {
+        // Builders only reach the service on execute()
+        manager = new DefaultOutboxManager(null, null, null, null, null);
+        batchPayloads = List.of("order-1", "order-2", "order-3", "order-4", "order-5",
+            "order-6", "order-7", "order-8", "order-9", "order-10");
+    }
+
+    @Benchmark
+    public OutboxManager.OutboxEventBuilder publish() {
+        return manager.publish("order.created", "order-42", PAYLOAD);
+    }
+
+    @Benchmark
+    public OutboxManager.OutboxEventBuilder publishWithHeaders() {
+        return manager.publishOrdered("order.created", "order-42", PAYLOAD)
+            .withHeader("source", "order-service")
+            .withHeader("traceId", "4bf92f3577b34da6")
+            .retryable(false);
+    }
+
+    @Benchmark
+    public OutboxManager.OutboxBatchBuilder publishAll() {
+        return manager.publishAll("order.created", batchPayloads, id -> id)
+            .withHeader("source", "order-service");
+    }
+}
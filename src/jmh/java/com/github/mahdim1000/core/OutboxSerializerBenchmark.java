@@ -0,0 +1,82 @@
+package com.github.mahdim1000.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.mahdim1000.config.OutboxProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payload and header serialization as done on insert, and header decoding as done on relay,
+ * where the Kafka publisher copies each header into a record.
+ * Header benchmarks do not depend on the payload format.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OutboxSerializerBenchmark {
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    public OutboxProperties.PayloadFormat format;
+
+    private OutboxSerializer serializer;
+    private OrderCreated payload;
+    private Map<String, String> headers;
+    private byte[] encodedHeaders;
+
+    @Setup
+    public void setUp() {
+        var objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        serializer = new OutboxSerializer(JacksonPayloadCodec.of(format, objectMapper),
+            new PayloadCompression(new OutboxProperties.Payload(format, null).compression(), List.of()));
+        payload = new OrderCreated("order-42", "customer-7", new BigDecimal("129.95"),
+            List.of(new OrderLine("sku-1", 2), new OrderLine("sku-2", 1)), Instant.parse("2025-01-01T10:15:30Z"));
+        headers = Map.of("source", "order-service", "traceId", "4bf92f3577b34da6a3ce929d0e0e4736",
+            "tenant", "eu-west");
+        encodedHeaders = serializer.writeHeaders(headers);
+    }
+
+    @Benchmark
+    public OutboxSerializer.EncodedPayload writePayload() throws IOException {
+        return serializer.writePayload(payload);
+    }
+
+    @Benchmark
+    public byte[] writeHeaders() {
+        return serializer.writeHeaders(headers);
+    }
+
+    @Benchmark
+    public void readHeaders(Blackhole blackhole) {
+        serializer.readHeaders(encodedHeaders, serializer.getContentType(), null)
+            .forEachRaw((key, value) -> {
+                blackhole.consume(key);
+                blackhole.consume(value);
+            });
+    }
+
+    public record OrderCreated(String orderId, String customerId, BigDecimal amount,
+                               List<OrderLine> lines, Instant createdAt) {}
+
+    public record OrderLine(String sku, int quantity) {}
+}
@@ -0,0 +1,60 @@
+package com.github.mahdim1000.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compression of large JSON documents on insert, and decompression on relay.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PayloadCompressionBenchmark {
+
+    @Param({"GZIP", "DEFLATE"})
+    public JdkPayloadCompressor compressor;
+
+    @Param({"20480", "204800"})
+    public int size;
+
+    private byte[] document;
+    private byte[] compressed;
+
+    @Setup
+    public void setUp() throws IOException {
+        var json = new StringBuilder("{\"items\":[");
+        for (int i = 0; json.length() < size; i++) {
+            json.append("{\"sku\":\"sku-").append(i).append("\",\"quantity\":").append(i % 7)
+                .append(",\"description\":\"item number ").append(i).append("\"},");
+        }
+        json.setLength(size - 2);
+        document = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+        compressed = compressor.compress(document);
+    }
+
+    @Benchmark
+    public byte[] compress() throws IOException {
+        return compressor.compress(document);
+    }
+
+    @Benchmark
+    public byte[] decompress() throws IOException {
+        return compressor.decompress(compressed);
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.mahdim1000.domain;
+
+import com.github.mahdim1000.api.CompactHeaders;
+import com.github.mahdim1000.api.PublishingException;
+import com.github.mahdim1000.config.OutboxProperties;
+import com.github.mahdim1000.core.ExponentialRetryPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity creation (ULID, validation, timestamps) and retry backoff.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutboxEntityBenchmark {
+
+    private static final byte[] PAYLOAD = "{\"orderId\":\"order-42\",\"customerId\":\"customer-7\",\"amount\":129.95}"
+        .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] HEADERS =
+        CompactHeaders.encode(Map.of("source", "order-service", "traceId", "4bf92f3577b34da6"));
+    private static final ExponentialRetryPolicy RETRY_POLICY = new ExponentialRetryPolicy(
+        new OutboxProperties.Retry(10, Duration.ofSeconds(30), null, null, null, null));
+    private static final OutboxEntity EVENT =
+        OutboxEntity.create("order.created", "order-42", PAYLOAD, "application/json", null, HEADERS, 0, true);
+    private static final PublishingException FAILURE = new PublishingException("broker unavailable");
+
+    @Benchmark
+    public OutboxEntity create() {
+        return OutboxEntity.create("order.created", "order-42", PAYLOAD, "application/json", null, HEADERS, 0, true);
+    }
+
+    @Benchmark
+    public OutboxEntity createOrdered() {
+        return OutboxEntity.create("order.created", "order-42", PAYLOAD, "application/json", null, HEADERS, 3, true);
+    }
+
+    @Benchmark
+    public Duration nextRetryDelay(Backoff backoff) {
+        return RETRY_POLICY.nextDelay(EVENT, backoff.retryCount, Duration.ofSeconds(backoff.retryCount * 30L), FAILURE);
+    }
+
+    @State(Scope.Thread)
+    public static class Backoff {
+
+        @Param({"1", "5"})
+        public int retryCount;
+    }
+}
@@ -0,0 +1,305 @@
+package com.github.mahdim1000.api;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Read-only view of message headers stored in a compact binary form.
+ *
+ * The stored form is a format byte, the number of headers, then the UTF-8 key and value
+ * of each header, every length written as an unsigned varint. Nothing is decoded until
+ * the headers are first read, and values are only turned into strings when asked for,
+ * so publishers can copy them into broker headers with {@link #forEachRaw}.
+ *
+ * Rows written before this format hold JSON objects and are still readable.
+ */
+public final class CompactHeaders extends AbstractMap<String, String> {
+
+    private static final byte FORMAT = 1;
+    private static final String[] NONE = new String[0];
+    private static final CompactHeaders EMPTY = new CompactHeaders(null, NONE, NONE);
+
+    private final byte[] encoded;
+    // Added headers, used unless the stored headers have the same key
+    private final String[] extraKeys;
+    private final String[] extraValues;
+
+    private volatile Decoded decoded;
+
+    private CompactHeaders(byte[] encoded, String[] extraKeys, String[] extraValues) {
+        this.encoded = encoded;
+        this.extraKeys = extraKeys;
+        this.extraValues = extraValues;
+    }
+
+    /**
+     * Encodes headers into their stored form.
+     *
+     * @return the encoded headers, or {@code null} if there are none
+     * @throws IllegalArgumentException if a header has a {@code null} key or value
+     */
+    public static byte[] encode(Map<String, String> headers) {
+        if (headers == null || headers.isEmpty()) {
+            return null;
+        }
+        var out = new ByteArrayOutputStream(16 + headers.size() * 32);
+        out.write(FORMAT);
+        writeLength(out, headers.size());
+        headers.forEach((key, value) -> {
+            if (key == null) {
+                throw new IllegalArgumentException("Header names cannot be null");
+            }
+            if (value == null) {
+                throw new IllegalArgumentException("Header '" + key + "' has a null value");
+            }
+            writeString(out, key);
+            writeString(out, value);
+        });
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns a view of stored headers; decoding happens on first access.
+     *
+     * @param encoded output of {@link #encode}, a legacy JSON object, or {@code null}
+     */
+    public static CompactHeaders decode(byte[] encoded) {
+        return encoded == null || encoded.length == 0 ? EMPTY : new CompactHeaders(encoded, NONE, NONE);
+    }
+
+    /**
+     * Returns a view that also contains {@code key}, unless these headers already have it.
+     * A {@code null} value leaves the headers unchanged.
+     */
+    public CompactHeaders withDefault(String key, String value) {
+        if (value == null) {
+            return this;
+        }
+        String[] keys = Arrays.copyOf(extraKeys, extraKeys.length + 1);
+        String[] values = Arrays.copyOf(extraValues, extraValues.length + 1);
+        keys[extraKeys.length] = key;
+        values[extraValues.length] = value;
+        return new CompactHeaders(encoded, keys, values);
+    }
+
+    /**
+     * Passes every header to {@code action} with its value as UTF-8 bytes, copied straight
+     * from the stored form without creating a string.
+     */
+    public void forEachRaw(BiConsumer<String, byte[]> action) {
+        var headers = decoded();
+        for (int i = 0; i < headers.keys.length; i++) {
+            action.accept(headers.keys[i], headers.rawValue(encoded, i));
+        }
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super String> action) {
+        var headers = decoded();
+        for (int i = 0; i < headers.keys.length; i++) {
+            action.accept(headers.keys[i], headers.value(encoded, i));
+        }
+    }
+
+    @Override
+    public String get(Object key) {
+        var headers = decoded();
+        int index = headers.indexOf(key);
+        return index < 0 ? null : headers.value(encoded, index);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return decoded().indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return decoded().keys.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                var headers = decoded();
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < headers.keys.length;
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int index = next++;
+                        return new SimpleImmutableEntry<>(headers.keys[index], headers.value(encoded, index));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return CompactHeaders.this.size();
+            }
+        };
+    }
+
+    private Decoded decoded() {
+        var headers = decoded;
+        if (headers == null) {
+            headers = encoded == null ? Decoded.of(NONE, null, null, NONE) : read();
+            headers = headers.withDefaults(extraKeys, extraValues);
+            decoded = headers;
+        }
+        return headers;
+    }
+
+    private Decoded read() {
+        if (encoded[0] != FORMAT) {
+            return Legacy.read(encoded);
+        }
+        try {
+            return readCompact();
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Stored headers are truncated", e);
+        }
+    }
+
+    private Decoded readCompact() {
+        var position = new int[] {1};
+        int count = readLength(encoded, position);
+        String[] keys = new String[count];
+        int[] offsets = new int[count];
+        int[] lengths = new int[count];
+        for (int i = 0; i < count; i++) {
+            int keyLength = readLength(encoded, position);
+            keys[i] = new String(encoded, position[0], keyLength, StandardCharsets.UTF_8);
+            position[0] += keyLength;
+            lengths[i] = readLength(encoded, position);
+            offsets[i] = position[0];
+            position[0] += lengths[i];
+        }
+        return Decoded.of(keys, offsets, lengths, new String[count]);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeLength(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeLength(ByteArrayOutputStream out, int length) {
+        while ((length & ~0x7F) != 0) {
+            out.write((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        out.write(length);
+    }
+
+    private static int readLength(byte[] in, int[] position) {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in[position[0]++];
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return length;
+            }
+        }
+    }
+
+    /**
+     * Decoded keys plus either the location of each value in the stored form or the value itself.
+     * Values located in the stored form are turned into strings on first use.
+     */
+    private record Decoded(String[] keys, int[] offsets, int[] lengths, String[] values) {
+
+        static Decoded of(String[] keys, int[] offsets, int[] lengths, String[] values) {
+            return new Decoded(keys, offsets, lengths, values);
+        }
+
+        int indexOf(Object key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        String value(byte[] encoded, int index) {
+            String value = values[index];
+            if (value == null) {
+                value = new String(encoded, offsets[index], lengths[index], StandardCharsets.UTF_8);
+                values[index] = value;
+            }
+            return value;
+        }
+
+        byte[] rawValue(byte[] encoded, int index) {
+            String value = values[index];
+            return value != null
+                ? value.getBytes(StandardCharsets.UTF_8)
+                : Arrays.copyOfRange(encoded, offsets[index], offsets[index] + lengths[index]);
+        }
+
+        Decoded withDefaults(String[] extraKeys, String[] extraValues) {
+            if (extraKeys.length == 0) {
+                return this;
+            }
+            int size = keys.length;
+            String[] allKeys = Arrays.copyOf(keys, size + extraKeys.length);
+            String[] allValues = Arrays.copyOf(values, size + extraKeys.length);
+            for (int i = 0; i < extraKeys.length; i++) {
+                if (indexOf(extraKeys[i]) < 0) {
+                    allKeys[size] = extraKeys[i];
+                    allValues[size] = extraValues[i];
+                    size++;
+                }
+            }
+            return new Decoded(Arrays.copyOf(allKeys, size), offsets, lengths, Arrays.copyOf(allValues, size));
+        }
+    }
+
+    /**
+     * Headers stored as a JSON object by earlier versions.
+     */
+    private static final class Legacy {
+
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+        private static final TypeReference<Map<String, String>> TYPE = new TypeReference<>() {};
+
+        static Decoded read(byte[] json) {
+            try {
+                Map<String, String> headers = MAPPER.readValue(json, TYPE);
+                String[] keys = headers.keySet().toArray(NONE);
+                String[] values = headers.values().toArray(NONE);
+                return Decoded.of(keys, null, null, values);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Stored headers are neither compact nor JSON", e);
+            }
+        }
+    }
+}
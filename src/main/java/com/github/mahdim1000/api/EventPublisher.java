@@ -1,15 +1,24 @@
 package com.github.mahdim1000.api;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface for publishing events to external message brokers.
  * 
+ * Payloads arrive already encoded by the {@link PayloadCodec} and should be passed to the
+ * broker client as bytes, without converting them to a String first.
+ * 
  * Implementations should:
  * - Handle connection management and retries internally
  * - Be thread-safe for concurrent access
  * - Provide meaningful error messages via PublishingException
  * - Implement proper resource cleanup
+ * 
+ * Only the blocking {@code publish} methods are mandatory. Publishers backed by an
+ * asynchronous client should override {@link #publishAsync} and {@link #publishBatch}
+ * so the relay can keep many sends in flight instead of waiting on each one.
  */
 public interface EventPublisher {
     
@@ -17,24 +26,66 @@ public interface EventPublisher {
      * Publishes an event to the specified topic.
      * 
      * @param topic the destination topic/queue
-     * @param payload the event payload as JSON string
+     * @param payload the encoded event payload
      * @throws PublishingException if publishing fails
      */
-    void publish(String topic, String payload) throws PublishingException;
+    void publish(String topic, byte[] payload) throws PublishingException;
     
     /**
      * Publishes an event with custom headers.
      * 
      * @param topic the destination topic/queue
-     * @param payload the event payload as JSON string  
-     * @param headers custom headers for the message
+     * @param payload the encoded event payload
+     * @param headers custom headers for the message, including {@value PayloadCodec#CONTENT_TYPE_HEADER}
      * @throws PublishingException if publishing fails
      */
-    void publish(String topic, String payload, Map<String, String> headers) throws PublishingException;
+    void publish(String topic, byte[] payload, Map<String, String> headers) throws PublishingException;
+    
+    /**
+     * Starts publishing an event without waiting for the broker acknowledgement.
+     * The default implementation delegates to the blocking {@link #publish} method.
+     * 
+     * @param request the message to send
+     * @return future completed when the broker acknowledged the message, or
+     *         completed exceptionally with a {@link PublishingException}
+     */
+    default CompletableFuture<Void> publishAsync(PublishRequest request) {
+        try {
+            publish(request.topic(), request.payload(), request.headers());
+            return CompletableFuture.completedFuture(null);
+        } catch (PublishingException e) {
+            return CompletableFuture.failedFuture(e);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(new PublishingException(e.getMessage(), e));
+        }
+    }
+    
+    /**
+     * Publishes a batch of events, firing all of them before awaiting acknowledgements.
+     * Requests for the same aggregate must be sent in list order.
+     * 
+     * @param requests the messages to send
+     * @return one future per request, in the same order as {@code requests}
+     */
+    default List<CompletableFuture<Void>> publishBatch(List<PublishRequest> requests) {
+        return requests.stream().map(this::publishAsync).toList();
+    }
+    
+    /**
+     * Whether {@link #publishBatch} keeps a whole batch in flight by itself, because the
+     * client is asynchronous or acknowledges a batch at once. The virtual-thread relay then
+     * hands it whole batches instead of running every send on its own thread.
+     * 
+     * @return true if batches should go to {@link #publishBatch}; false by default
+     */
+    default boolean batchesNatively() {
+        return false;
+    }
     
     /**
      * Checks if the publisher is healthy and ready to publish messages.
-     * This should be a lightweight check (no network calls if possible).
+     * Called periodically from a background thread, never from callers of the outbox;
+     * it may contact the broker but must release anything it opens.
      * 
      * @return true if healthy, false otherwise
      */
@@ -25,9 +25,20 @@ public interface OutboxEvent {
     String getAggregateId();
     
     /**
-     * @return JSON serialized payload
+     * @return payload as stored: encoded by the {@link PayloadCodec}, then compressed
+     *         if {@link #getContentEncoding()} is set
      */
-    String getPayload();
+    byte[] getPayload();
+    
+    /**
+     * @return content type of the payload (e.g., "application/json")
+     */
+    String getContentType();
+    
+    /**
+     * @return the {@link PayloadCompressor} encoding of the stored payload, or null if uncompressed
+     */
+    String getContentEncoding();
     
     /**
      * @return event headers as key-value pairs
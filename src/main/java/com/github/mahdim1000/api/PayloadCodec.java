@@ -0,0 +1,34 @@
+package com.github.mahdim1000.api;
+
+import java.io.IOException;
+
+/**
+ * Encodes event payloads into the bytes stored in the outbox and sent to the broker.
+ *
+ * The bytes are handed to the {@link EventPublisher} as they are; consumers learn how to
+ * decode them from the {@value #CONTENT_TYPE_HEADER} header added to every message.
+ * Implementations must be thread-safe.
+ */
+public interface PayloadCodec {
+
+    /**
+     * Message header carrying the {@link #getContentType() content type} of the payload.
+     */
+    String CONTENT_TYPE_HEADER = "content-type";
+
+    /**
+     * Encodes a payload.
+     *
+     * @param payload the event payload passed to the {@code OutboxManager}
+     * @return the encoded payload, never empty
+     * @throws IOException if the payload cannot be encoded
+     */
+    byte[] encode(Object payload) throws IOException;
+
+    /**
+     * Returns the MIME type of the encoded payloads, stored with every message.
+     *
+     * @return content type (e.g., "application/json", "application/cbor")
+     */
+    String getContentType();
+}
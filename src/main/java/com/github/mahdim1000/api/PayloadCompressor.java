@@ -0,0 +1,39 @@
+package com.github.mahdim1000.api;
+
+import java.io.IOException;
+
+/**
+ * Compresses large encoded payloads before they are stored in the outbox.
+ *
+ * The {@link #getEncoding() encoding} is stored with every compressed row, so a compressor
+ * must stay registered for as long as rows compressed with it may be relayed.
+ * Implementations must be thread-safe.
+ */
+public interface PayloadCompressor {
+
+    /**
+     * Message header carrying the {@link #getEncoding() encoding} of payloads forwarded compressed.
+     */
+    String CONTENT_ENCODING_HEADER = "content-encoding";
+
+    /**
+     * Returns the name of the algorithm, used in configuration, storage and the header.
+     *
+     * @return content encoding token (e.g., "gzip", "deflate")
+     */
+    String getEncoding();
+
+    /**
+     * @param payload the encoded payload
+     * @return the compressed payload
+     * @throws IOException if compression fails
+     */
+    byte[] compress(byte[] payload) throws IOException;
+
+    /**
+     * @param compressed a payload produced by {@link #compress}
+     * @return the original payload
+     * @throws IOException if the data is corrupt
+     */
+    byte[] decompress(byte[] compressed) throws IOException;
+}
@@ -0,0 +1,25 @@
+package com.github.mahdim1000.api;
+
+import java.util.Map;
+
+/**
+ * A single message handed to an {@link EventPublisher} for sending.
+ * 
+ * @param eventId unique identifier of the outbox event
+ * @param topic the destination topic/queue
+ * @param aggregateId the business entity identifier
+ * @param payload the encoded event payload, to be sent as is
+ * @param headers custom headers for the message, including {@value PayloadCodec#CONTENT_TYPE_HEADER} (never null)
+ */
+public record PublishRequest(
+    String eventId,
+    String topic,
+    String aggregateId,
+    byte[] payload,
+    Map<String, String> headers
+) {
+    
+    public PublishRequest {
+        if (headers == null) headers = Map.of();
+    }
+}
@@ -3,18 +3,39 @@ package com.github.mahdim1000.api;
 /**
  * Exception thrown when event publishing fails.
  * This is a checked exception to force proper error handling.
+ *
+ * Failures are retryable unless the publisher knows that sending the same event
+ * again cannot succeed (e.g. the record is too large), in which case the event
+ * moves to the dead letter state without further attempts.
  */
 public class PublishingException extends Exception {
     
+    private final boolean retryable;
+    
     public PublishingException(String message) {
         super(message);
+        this.retryable = true;
     }
     
     public PublishingException(String message, Throwable cause) {
         super(message, cause);
+        this.retryable = true;
     }
     
     public PublishingException(Throwable cause) {
         super(cause);
+        this.retryable = true;
+    }
+    
+    public PublishingException(String message, Throwable cause, boolean retryable) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+    
+    /**
+     * @return true if this failure is retryable, false if permanent
+     */
+    public boolean isRetryable() {
+        return retryable;
     }
 }
@@ -0,0 +1,22 @@
+package com.github.mahdim1000.api;
+
+import java.time.Duration;
+
+/**
+ * Decides when a failed event is attempted again, or that it is not.
+ *
+ * The default policy backs off exponentially as configured under {@code outbox.retry}.
+ * Register a bean to replace it, e.g. to classify broker-specific errors.
+ * Implementations must be thread-safe.
+ */
+public interface RetryPolicy {
+
+    /**
+     * @param event the event that failed to publish
+     * @param attempt how many times the event has failed, including this failure
+     * @param previousDelay the delay before this attempt, or null if it was the first
+     * @param failure why publishing failed
+     * @return how long to wait before the next attempt, or null to move the event to the dead letter state
+     */
+    Duration nextDelay(OutboxEvent event, int attempt, Duration previousDelay, Throwable failure);
+}
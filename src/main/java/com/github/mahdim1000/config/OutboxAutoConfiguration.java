@@ -2,12 +2,15 @@ package com.github.mahdim1000.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.mahdim1000.core.DeadLetterReplayer;
 import com.github.mahdim1000.core.DefaultOutboxManager;
 import com.github.mahdim1000.core.OutboxManager;
+import com.github.mahdim1000.core.PublisherHealthProbe;
 
 
 import com.github.mahdim1000.core.OutboxService;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
@@ -15,6 +18,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
@@ -52,15 +56,30 @@ public class OutboxAutoConfiguration {
     }
 
     /**
-     * Thread pool executor for outbox processing.
-     * Configured with reasonable defaults for concurrent processing.
+     * Executor for outbox processing.
+     * A thread pool sized so that every relay lane gets its own worker, or a virtual
+     * thread per task when {@code outbox.processing.executor=virtual}.
      */
     @Bean(name = "outboxTaskExecutor")
     @ConditionalOnMissingBean(name = "outboxTaskExecutor")
     public Executor outboxTaskExecutor(OutboxProperties properties) {
+        return createTaskExecutor(properties);
+    }
+
+    static Executor createTaskExecutor(OutboxProperties properties) {
+        if (properties.processing().executor() == OutboxProperties.ExecutorType.VIRTUAL) {
+            // Lanes run at most one batch each, so no concurrency limit is needed here
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("Outbox-");
+            executor.setVirtualThreads(true);
+            executor.setTaskTerminationTimeout(30_000);
+            return executor;
+        }
+        
+        // Every lane may run a pending and a failed batch at the same time
+        int laneWorkers = properties.processing().lanes() * 2;
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(10);
+        executor.setCorePoolSize(Math.max(2, laneWorkers));
+        executor.setMaxPoolSize(Math.max(10, laneWorkers));
         executor.setQueueCapacity(1000);
         executor.setThreadNamePrefix("Outbox-");
         executor.setWaitForTasksToCompleteOnShutdown(true);
@@ -69,6 +88,19 @@ public class OutboxAutoConfiguration {
         return executor;
     }
 
+    /**
+     * Enables JDBC batching of outbox inserts.
+     * Outbox ids are ULIDs assigned client-side, so Hibernate can batch them;
+     * values set explicitly by the application take precedence.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer outboxHibernatePropertiesCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.putIfAbsent("hibernate.jdbc.batch_size", 100);
+            hibernateProperties.putIfAbsent("hibernate.order_inserts", true);
+        };
+    }
+
     /**
      * Main outbox manager facade.
      * This is the primary entry point for library users.
@@ -77,8 +109,10 @@ public class OutboxAutoConfiguration {
     @ConditionalOnMissingBean
     public OutboxManager outboxManager(OutboxService outboxService,
                                        ObjectMapper objectMapper,
-                                       OutboxProperties properties) {
-        return new DefaultOutboxManager(outboxService, objectMapper, properties);
+                                       OutboxProperties properties,
+                                       PublisherHealthProbe healthProbe,
+                                       DeadLetterReplayer deadLetterReplayer) {
+        return new DefaultOutboxManager(outboxService, objectMapper, properties, healthProbe, deadLetterReplayer);
     }
 
 }
@@ -0,0 +1,66 @@
+package com.github.mahdim1000.config;
+
+import com.github.mahdim1000.core.MicrometerOutboxInstrumentation;
+import com.github.mahdim1000.core.OutboxInstrumentation;
+import com.github.mahdim1000.core.OutboxProcessor;
+import com.github.mahdim1000.core.RetentionPurger;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer metrics for the outbox relay.
+ * Only active when Micrometer is on the classpath (e.g. via Spring Boot Actuator).
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(MeterRegistry.class)
+public class OutboxMetricsAutoConfiguration {
+
+    /**
+     * Timers, summaries and counters along the relay hot path.
+     * Components fall back to {@link OutboxInstrumentation#NOOP} when this bean is absent.
+     */
+    @Bean
+    public OutboxInstrumentation outboxInstrumentation(ObjectProvider<MeterRegistry> registry) {
+        MeterRegistry meterRegistry = registry.getIfAvailable();
+        return meterRegistry == null ? OutboxInstrumentation.NOOP : new MicrometerOutboxInstrumentation(meterRegistry);
+    }
+
+    /**
+     * Current wait of every polling loop, tagged with the status it relays and its lane.
+     */
+    @Bean
+    public MeterBinder outboxPollingMetrics(ObjectProvider<OutboxProcessor> processor) {
+        return registry -> processor.ifAvailable(p -> p.getPollLoops().forEach(loop ->
+            TimeGauge.builder("outbox.poll.interval", loop, TimeUnit.MILLISECONDS,
+                    l -> l.getInterval().toMillis())
+                .description("Delay before the next poll when the last batch was not full")
+                .tag("status", loop.getKind())
+                .tag("lane", String.valueOf(loop.getLane()))
+                .register(registry)));
+    }
+
+    /**
+     * Rows deleted by the retention purge; the rate of this counter is the purge throughput.
+     */
+    @Bean
+    public MeterBinder outboxRetentionMetrics(ObjectProvider<RetentionPurger> purger) {
+        return registry -> purger.ifAvailable(p -> {
+            FunctionCounter.builder("outbox.retention.purged", p, RetentionPurger::getPurgedPublished)
+                .description("Outbox rows deleted by the retention purge")
+                .tag("status", "published")
+                .register(registry);
+            FunctionCounter.builder("outbox.retention.purged", p, RetentionPurger::getPurgedDeadLetters)
+                .description("Outbox rows deleted by the retention purge")
+                .tag("status", "dead_letter")
+                .register(registry);
+        });
+    }
+}
@@ -1,9 +1,12 @@
 package com.github.mahdim1000.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
+import java.lang.management.ManagementFactory;
 import java.time.Duration;
+import java.util.Map;
 
 /**
  * Configuration properties for the Outbox Pattern library.
@@ -18,13 +21,64 @@ import java.time.Duration;
  *     batch-size: 100
  *     publish-rate: PT10S
  *     retry-rate: PT30S
+ *     claim-mode: skip-locked
+ *     lease-duration: PT5M
+ *     max-in-flight: 100
+ *     lanes: 4
+ *     executor: virtual
+ *     max-concurrency: 1000
  *   retry:
  *     max-retries: 5
  *     initial-delay: PT1M
+ *     multiplier: 2.0
+ *     max-delay: PT24H
+ *     jitter: decorrelated
+ *     topics:
+ *       "[order.payments]":
+ *         initial-delay: PT0.2S
+ *         max-retries: 10
+ *   polling:
+ *     min-interval: PT0.1S
+ *     backoff-multiplier: 2.0
+ *   retention:
+ *     enabled: true
+ *     published-ttl: P7D
+ *     dead-letter-ttl: P30D
+ *     chunk-size: 500
+ *     chunk-pause: PT0.1S
+ *   replay:
+ *     rate: 100
+ *     chunk-size: 100
+ *   handoff:
+ *     enabled: true
+ *     queue-capacity: 10000
+ *   ack:
+ *     batch-size: 500
+ *     flush-interval: PT0.02S
+ *   monitoring:
+ *     enabled: true
+ *     metrics-interval: PT1M
+ *     reconcile-interval: PT1H
+ *     health-interval: PT10S
+ *   payload:
+ *     format: json
+ *     compression:
+ *       enabled: true
+ *       algorithm: gzip
+ *       threshold: 16KB
+ *       delivery: decompress
+ *       topics:
+ *         "[order.documents]": forward
  *   publisher:
  *     type: logging
  *     default-topic: outbox-events
  *     timeout: PT30S
+ *     kafka:
+ *       key: aggregate-id
+ *       event-id-header: event-id
+ *     circuit-breaker:
+ *       failure-threshold: 5
+ *       open-duration: PT30S
  * </pre>
  */
 @ConfigurationProperties(prefix = "outbox")
@@ -32,23 +86,52 @@ import java.time.Duration;
 public record OutboxProperties(
     Processing processing,
     Retry retry,
-    Publisher publisher
+    Publisher publisher,
+    Ack ack,
+    Handoff handoff,
+    Polling polling,
+    Retention retention,
+    Replay replay,
+    Monitoring monitoring,
+    Payload payload
 ) {
     
     public OutboxProperties {
-        if (processing == null) processing = new Processing(null, null, null, null);
-        if (retry == null) retry = new Retry(null, null);
-        if (publisher == null) publisher = new Publisher(null, null, null);
+        if (processing == null) processing = new Processing(null, null, null, null, null, null, null, null, null, null, null);
+        if (retry == null) retry = new Retry(null, null, null, null, null, null);
+        if (publisher == null) publisher = new Publisher(null, null, null, null, null);
+        if (ack == null) ack = new Ack(null, null, null);
+        if (handoff == null) handoff = new Handoff(null, null);
+        if (polling == null) polling = new Polling(null, null);
+        if (retention == null) retention = new Retention(null, null, null, null, null, null);
+        if (replay == null) replay = new Replay(null, null);
+        if (monitoring == null) monitoring = new Monitoring(null, null, null, null);
+        if (payload == null) payload = new Payload(null, null);
     }
 
     /**
      * Configuration for message processing behavior.
+     * 
+     * Rows are claimed by stamping {@code claimedBy}/{@code leaseUntil}; a claim whose
+     * lease has expired (e.g. the owning node crashed) becomes claimable again.
+     * {@code maxInFlight} bounds how many sends of a batch await broker acknowledgement at once.
+     * {@code lanes} splits the relay into independent workers, each owning the aggregates
+     * whose hash falls into it, so unrelated aggregates are relayed concurrently.
+     * With the {@code virtual} executor, lanes and individual sends run on virtual threads
+     * and {@code maxConcurrency} caps the sends in flight across all lanes.
      */
     public record Processing(
         Boolean enabled,
         Integer batchSize,
         Duration publishRate,
-        Duration retryRate
+        Duration retryRate,
+        ClaimMode claimMode,
+        Duration leaseDuration,
+        String nodeId,
+        Integer maxInFlight,
+        Integer lanes,
+        ExecutorType executor,
+        Integer maxConcurrency
     ) {
         public Processing {
             if (enabled == null) enabled = true;
@@ -58,15 +141,128 @@ public record OutboxProperties(
             }
             if (publishRate == null) publishRate = Duration.ofSeconds(10);
             if (retryRate == null) retryRate = Duration.ofSeconds(30);
+            if (claimMode == null) claimMode = ClaimMode.SKIP_LOCKED;
+            if (leaseDuration == null) leaseDuration = Duration.ofMinutes(5);
+            if (leaseDuration.isNegative() || leaseDuration.isZero()) {
+                throw new IllegalArgumentException("leaseDuration must be positive");
+            }
+            if (nodeId == null || nodeId.isBlank()) nodeId = ManagementFactory.getRuntimeMXBean().getName();
+            if (maxInFlight == null) maxInFlight = 100;
+            if (maxInFlight < 1 || maxInFlight > 10000) {
+                throw new IllegalArgumentException("maxInFlight must be between 1 and 10000");
+            }
+            if (lanes == null) lanes = 1;
+            if (lanes < 1 || lanes > 256) {
+                throw new IllegalArgumentException("lanes must be between 1 and 256");
+            }
+            if (executor == null) executor = ExecutorType.PLATFORM;
+            if (maxConcurrency == null) maxConcurrency = 1000;
+            if (maxConcurrency < 1 || maxConcurrency > 100000) {
+                throw new IllegalArgumentException("maxConcurrency must be between 1 and 100000");
+            }
         }
     }
 
+    /**
+     * How relay nodes lock the rows they claim.
+     */
+    public enum ClaimMode {
+        /** Plain {@code SELECT ... FOR UPDATE}: concurrent nodes wait on each other's rows. */
+        LOCKING,
+        /** {@code SELECT ... FOR UPDATE SKIP LOCKED}: each node claims a disjoint batch. */
+        SKIP_LOCKED
+    }
+
+    /**
+     * Threads the relay runs on.
+     */
+    public enum ExecutorType {
+        /** Bounded pool of platform threads; sends are left to the publisher's own concurrency. */
+        PLATFORM,
+        /** A virtual thread per lane batch and per send, for publishers that block on broker I/O. */
+        VIRTUAL
+    }
+
+    /**
+     * Configuration for how payloads are stored and sent.
+     * Binary formats need the matching {@code jackson-dataformat-*} module on the classpath;
+     * a {@code PayloadCodec} bean replaces the built-in codecs altogether.
+     */
+    public record Payload(
+        PayloadFormat format,
+        Compression compression
+    ) {
+        public Payload {
+            if (format == null) format = PayloadFormat.JSON;
+            if (compression == null) compression = new Compression(null, null, null, null, null);
+        }
+    }
+
+    /**
+     * Configuration for compressing large payloads in the outbox table.
+     * Payloads of at least {@code threshold} bytes are compressed with {@code algorithm}
+     * ({@code gzip}, {@code deflate} or the encoding of a {@code PayloadCompressor} bean)
+     * and kept compressed only if that made them smaller. {@code delivery} decides whether
+     * the broker receives them as stored or decompressed; {@code topics} overrides it per topic.
+     */
+    public record Compression(
+        Boolean enabled,
+        String algorithm,
+        DataSize threshold,
+        Delivery delivery,
+        Map<String, Delivery> topics
+    ) {
+        public Compression {
+            if (enabled == null) enabled = false;
+            if (algorithm == null || algorithm.isBlank()) algorithm = "gzip";
+            if (threshold == null) threshold = DataSize.ofKilobytes(16);
+            if (threshold.isNegative()) {
+                throw new IllegalArgumentException("threshold cannot be negative");
+            }
+            if (delivery == null) delivery = Delivery.DECOMPRESS;
+            topics = topics == null ? Map.of() : Map.copyOf(topics);
+        }
+
+        public Delivery deliveryFor(String topic) {
+            return topics.getOrDefault(topic, delivery);
+        }
+    }
+
+    /**
+     * How compressed payloads are handed to the broker.
+     */
+    public enum Delivery {
+        /** Send the compressed bytes with a {@code content-encoding} header; consumers decompress. */
+        FORWARD,
+        /** Decompress before sending; consumers see the payload as encoded by the codec. */
+        DECOMPRESS
+    }
+
+    /**
+     * Encodings of the built-in payload codec.
+     */
+    public enum PayloadFormat {
+        /** UTF-8 JSON text, readable by any consumer. */
+        JSON,
+        /** Jackson's binary JSON; needs {@code jackson-dataformat-smile}. */
+        SMILE,
+        /** RFC 8949 CBOR; needs {@code jackson-dataformat-cbor}. */
+        CBOR
+    }
+
     /**
      * Configuration for retry behavior when publishing fails.
+     * The n-th retry waits {@code initialDelay * multiplier^(n-1)}, randomized by {@code jitter}
+     * and capped at {@code maxDelay}; an event is dead-lettered once it has failed
+     * {@code maxRetries} times. {@code topics} overrides any of these per topic.
      */
     public record Retry(
         Integer maxRetries,
-        Duration initialDelay
+        Duration initialDelay,
+        Double multiplier,
+        Duration maxDelay,
+        Jitter jitter,
+        Map<String, TopicRetry> topics
     ) {
         public Retry {
             if (maxRetries == null) maxRetries = 5;
@@ -74,16 +270,72 @@ public record OutboxProperties(
                 throw new IllegalArgumentException("maxRetries must be between 1 and 10");
             }
             if (initialDelay == null) initialDelay = Duration.ofMinutes(1);
+            if (initialDelay.isNegative() || initialDelay.isZero()) {
+                throw new IllegalArgumentException("initialDelay must be positive");
+            }
+            if (multiplier == null) multiplier = 2.0;
+            if (multiplier < 1.0) {
+                throw new IllegalArgumentException("multiplier must be at least 1.0");
+            }
+            if (maxDelay == null) maxDelay = Duration.ofHours(24);
+            if (maxDelay.compareTo(initialDelay) < 0) {
+                throw new IllegalArgumentException("maxDelay cannot be shorter than initialDelay");
+            }
+            if (jitter == null) jitter = Jitter.DECORRELATED;
+            topics = topics == null ? Map.of() : Map.copyOf(topics);
+        }
+
+        /**
+         * The settings for {@code topic}: its overrides on top of these defaults.
+         */
+        public Retry forTopic(String topic) {
+            var override = topics.get(topic);
+            if (override == null) {
+                return this;
+            }
+            return new Retry(
+                override.maxRetries() != null ? override.maxRetries() : maxRetries,
+                override.initialDelay() != null ? override.initialDelay() : initialDelay,
+                override.multiplier() != null ? override.multiplier() : multiplier,
+                override.maxDelay() != null ? override.maxDelay() : maxDelay,
+                override.jitter() != null ? override.jitter() : jitter,
+                null);
         }
     }
 
+    /**
+     * Per-topic retry overrides; unset values fall back to the {@link Retry} defaults.
+     */
+    public record TopicRetry(
+        Integer maxRetries,
+        Duration initialDelay,
+        Double multiplier,
+        Duration maxDelay,
+        Jitter jitter
+    ) {}
+
+    /**
+     * How retry delays are randomized so that events failing together do not retry together.
+     */
+    public enum Jitter {
+        /** The exponential delay as is. */
+        NONE,
+        /** A random delay between zero and the exponential delay. */
+        FULL,
+        /** A random delay between {@code initialDelay} and {@code multiplier} times the previous delay. */
+        DECORRELATED
+    }
+
     /**
      * Configuration for the event publisher.
+     * {@code timeout} bounds how long a send waits for the broker acknowledgement.
      */
     public record Publisher(
         String type,
         String defaultTopic,
-        Duration timeout
+        Duration timeout,
+        Kafka kafka,
+        CircuitBreaker circuitBreaker
     ) {
         public Publisher {
             if (type == null) type = "logging";
@@ -92,6 +344,211 @@ public record OutboxProperties(
                 throw new IllegalArgumentException("defaultTopic cannot be blank");
             }
             if (timeout == null) timeout = Duration.ofSeconds(30);
+            if (timeout.isNegative() || timeout.isZero()) {
+                throw new IllegalArgumentException("timeout must be positive");
+            }
+            if (kafka == null) kafka = new Kafka(null, null);
+            if (circuitBreaker == null) circuitBreaker = new CircuitBreaker(null, null, null, null);
+        }
+    }
+
+    /**
+     * Configuration for the circuit breaker that pauses relaying during broker outages.
+     * It opens after {@code failureThreshold} consecutive failed sends and probes the broker
+     * with a single message every {@code openDuration}. With {@code perTopic}, each topic
+     * also trips on its own failures.
+     */
+    public record CircuitBreaker(
+        Boolean enabled,
+        Integer failureThreshold,
+        Duration openDuration,
+        Boolean perTopic
+    ) {
+        public CircuitBreaker {
+            if (enabled == null) enabled = true;
+            if (failureThreshold == null) failureThreshold = 5;
+            if (failureThreshold < 1) {
+                throw new IllegalArgumentException("circuit breaker failureThreshold must be at least 1");
+            }
+            if (openDuration == null) openDuration = Duration.ofSeconds(30);
+            if (openDuration.isNegative() || openDuration.isZero()) {
+                throw new IllegalArgumentException("circuit breaker openDuration must be positive");
+            }
+            if (perTopic == null) perTopic = false;
+        }
+    }
+
+    /**
+     * Configuration for the Kafka publisher.
+     * Records are keyed by {@code key}, so all events of an aggregate land on one partition
+     * by default, and carry the outbox event id in the {@code eventIdHeader} header.
+     */
+    public record Kafka(
+        RecordKey key,
+        String eventIdHeader
+    ) {
+        public Kafka {
+            if (key == null) key = RecordKey.AGGREGATE_ID;
+            if (eventIdHeader == null || eventIdHeader.isBlank()) eventIdHeader = "event-id";
+        }
+    }
+
+    /**
+     * What Kafka records are keyed by.
+     */
+    public enum RecordKey {
+        /** The aggregate id: events of an aggregate share a partition and keep their order. */
+        AGGREGATE_ID,
+        /** The event's ULID: spreads events evenly, without per-aggregate ordering. */
+        EVENT_ID,
+        /** No key: the producer picks partitions itself, without per-aggregate ordering. */
+        NONE
+    }
+
+    /**
+     * Configuration for the group-commit writer that records publish outcomes.
+     * Outcomes are flushed once {@code batchSize} are queued or {@code flushInterval}
+     * after the first one arrived, whichever comes first.
+     */
+    public record Ack(
+        Integer batchSize,
+        Duration flushInterval,
+        Integer queueCapacity
+    ) {
+        public Ack {
+            if (batchSize == null) batchSize = 500;
+            if (batchSize < 1 || batchSize > 10000) {
+                throw new IllegalArgumentException("ack batchSize must be between 1 and 10000");
+            }
+            if (flushInterval == null) flushInterval = Duration.ofMillis(20);
+            if (flushInterval.isNegative()) {
+                throw new IllegalArgumentException("ack flushInterval cannot be negative");
+            }
+            if (queueCapacity == null) queueCapacity = 10000;
+            if (queueCapacity < batchSize) {
+                throw new IllegalArgumentException("ack queueCapacity must be at least batchSize");
+            }
+        }
+    }
+
+    /**
+     * Configuration for the direct relay that publishes messages right after their
+     * transaction commits. Only used while processing is enabled; the scheduled poller
+     * remains the fallback for anything the direct path does not take.
+     */
+    public record Handoff(
+        Boolean enabled,
+        Integer queueCapacity
+    ) {
+        public Handoff {
+            if (enabled == null) enabled = true;
+            if (queueCapacity == null) queueCapacity = 10000;
+            if (queueCapacity < 1) {
+                throw new IllegalArgumentException("handoff queueCapacity must be positive");
+            }
+        }
+    }
+
+    /**
+     * Configuration for the adaptive polling loops.
+     * A loop waits {@code minInterval} after a partial batch and multiplies its wait by
+     * {@code backoffMultiplier} after each empty one, up to {@code processing.publishRate}
+     * for pending and {@code processing.retryRate} for failed messages, the latter capped
+     * at the shortest {@code retry.initialDelay}.
+     * Full batches are followed by another poll without waiting.
+     */
+    public record Polling(
+        Duration minInterval,
+        Double backoffMultiplier
+    ) {
+        public Polling {
+            if (minInterval == null) minInterval = Duration.ofMillis(100);
+            if (minInterval.isNegative() || minInterval.isZero()) {
+                throw new IllegalArgumentException("polling minInterval must be positive");
+            }
+            if (backoffMultiplier == null) backoffMultiplier = 2.0;
+            if (backoffMultiplier < 1.0) {
+                throw new IllegalArgumentException("polling backoffMultiplier must be at least 1");
+            }
+        }
+    }
+
+    /**
+     * Configuration for purging old rows. Purging is opt-in: nothing is deleted unless
+     * {@code enabled} is set.
+     * Every {@code interval}, published rows older than {@code publishedTtl} and dead letters
+     * older than {@code deadLetterTtl} are deleted in chunks of {@code chunkSize}, each in its
+     * own transaction, pausing {@code chunkPause} in between.
+     * Rows of either status are kept indefinitely unless their ttl is set.
+     */
+    public record Retention(
+        Boolean enabled,
+        Duration publishedTtl,
+        Duration deadLetterTtl,
+        Integer chunkSize,
+        Duration chunkPause,
+        Duration interval
+    ) {
+        public Retention {
+            if (enabled == null) enabled = false;
+            if ((publishedTtl != null && publishedTtl.isNegative())
+                    || (deadLetterTtl != null && deadLetterTtl.isNegative())) {
+                throw new IllegalArgumentException("retention ttls cannot be negative");
+            }
+            if (chunkSize == null) chunkSize = 500;
+            if (chunkSize < 1 || chunkSize > 10000) {
+                throw new IllegalArgumentException("retention chunkSize must be between 1 and 10000");
+            }
+            if (chunkPause == null) chunkPause = Duration.ofMillis(100);
+            if (chunkPause.isNegative()) {
+                throw new IllegalArgumentException("retention chunkPause cannot be negative");
+            }
+            if (interval == null) interval = Duration.ofHours(1);
+        }
+    }
+
+    /**
+     * Configuration for requeueing dead letters. Rows are moved back to PENDING in chunks of
+     * at most {@code chunkSize}, at no more than {@code rate} rows per second unless a replay
+     * sets its own rate, so the relay does not flood the broker that just recovered.
+     */
+    public record Replay(
+        Double rate,
+        Integer chunkSize
+    ) {
+        public Replay {
+            if (rate == null) rate = 100.0;
+            if (rate <= 0) {
+                throw new IllegalArgumentException("replay rate must be positive");
+            }
+            if (chunkSize == null) chunkSize = 100;
+            if (chunkSize < 1 || chunkSize > 10000) {
+                throw new IllegalArgumentException("replay chunkSize must be between 1 and 10000");
+            }
+        }
+    }
+
+    /**
+     * Configuration for the status counters behind {@code OutboxMetrics}.
+     * Deltas are shared through the {@code outbox_stats} table every {@code metricsInterval}
+     * and replaced by an exact count every {@code reconcileInterval}. When disabled,
+     * metrics are computed with {@code COUNT} queries on every call.
+     * The publisher's broker connection is probed in the background every {@code healthInterval}.
+     */
+    public record Monitoring(
+        Boolean enabled,
+        Duration metricsInterval,
+        Duration reconcileInterval,
+        Duration healthInterval
+    ) {
+        public Monitoring {
+            if (enabled == null) enabled = true;
+            if (metricsInterval == null) metricsInterval = Duration.ofMinutes(1);
+            if (reconcileInterval == null) reconcileInterval = Duration.ofHours(1);
+            if (healthInterval == null) healthInterval = Duration.ofSeconds(10);
+            if (healthInterval.isNegative() || healthInterval.isZero()) {
+                throw new IllegalArgumentException("healthInterval must be positive");
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,339 @@
+package com.github.mahdim1000.core;
+
+import com.github.mahdim1000.config.OutboxProperties;
+import com.github.mahdim1000.domain.OutboxEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group-commit writer for publish outcomes.
+ *
+ * Relay threads enqueue outcomes and a single writer thread records them with set-based
+ * statements: published rows become one {@code UPDATE ... WHERE id IN (...)} per claim token,
+ * failures are written as one JDBC batch. Every statement is guarded by the claim token, so
+ * outcomes for rows that have since been re-claimed by another batch are dropped.
+ * 
+ * Published ordered events are written per row so the writer knows which of them it
+ * actually recorded; for those it advances the aggregate's head version and marks the
+ * next version ready, in aggregate order to keep lock acquisition consistent.
+ * 
+ * Once a flush has committed, the status changes it actually wrote are reported to
+ * {@link OutboxStatistics}.
+ */
+@Component
+public class AcknowledgementWriter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AcknowledgementWriter.class);
+
+    private static final int MAX_IN_LIST = 1000;
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private static final String PUBLISHED_SQL = """
+        UPDATE outbox
+        SET status = 'PUBLISHED', published_at = ?, error_message = NULL,
+            claim_token = NULL, lease_until = NULL
+        WHERE id = ? AND claim_token = ?""";
+
+    private static final String ADVANCE_HEAD_SQL = """
+        UPDATE outbox_aggregate_sequence
+        SET head_version = ?
+        WHERE aggregate_id = ? AND head_version < ?""";
+
+    private static final String MARK_READY_SQL = """
+        UPDATE outbox
+        SET ready = TRUE
+        WHERE aggregate_id = ? AND version = ?""";
+
+    private static final String FAILURE_SQL = """
+        UPDATE outbox
+        SET status = ?, retry_count = ?, error_message = ?, retry_at = ?, next_retry_at = ?,
+            last_retry_delay_ms = ?, dead_letter_at = ?, claim_token = NULL, lease_until = NULL
+        WHERE id = ? AND claim_token = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties.Ack config;
+    private final BlockingQueue<Acknowledgement> queue;
+    private final OutboxStatistics statistics;
+    private final OutboxInstrumentation instrumentation;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AcknowledgementWriter(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 OutboxProperties properties,
+                                 OutboxStatistics statistics,
+                                 ObjectProvider<OutboxInstrumentation> instrumentation) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.config = properties.ack();
+        this.queue = new LinkedBlockingQueue<>(config.queueCapacity());
+        this.statistics = statistics;
+        this.instrumentation = instrumentation.getIfAvailable(() -> OutboxInstrumentation.NOOP);
+    }
+
+    /**
+     * Queues the outcome already applied to a detached message.
+     * Blocks while the queue is full, which throttles relays when the database falls behind.
+     *
+     * @param claimToken the token of the batch that claimed the message
+     * @param claimedStatus the status the message had when it was claimed
+     * @param message the message with its published or failed state applied
+     * @return future completed once the outcome has been committed
+     */
+    public CompletableFuture<Void> submit(String claimToken, OutboxEntity.Status claimedStatus,
+                                          OutboxEntity message) {
+        var ack = new Acknowledgement(claimToken, claimedStatus, message, new CompletableFuture<>());
+        if (!running) {
+            flush(List.of(ack));
+            return ack.flushed();
+        }
+        try {
+            queue.put(ack);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ack.flushed().completeExceptionally(e);
+        }
+        return ack.flushed();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("outbox-ack-writer").daemon().start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<Acknowledgement> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        List<Acknowledgement> batch = new ArrayList<>(config.batchSize());
+        while (running) {
+            try {
+                Acknowledgement first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Unexpected error in acknowledgement writer: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Tops the batch up until it is full or the flush interval since its first entry has passed.
+     */
+    private void collect(List<Acknowledgement> batch) throws InterruptedException {
+        queue.drainTo(batch, config.batchSize() - batch.size());
+        long deadline = System.nanoTime() + config.flushInterval().toNanos();
+        while (batch.size() < config.batchSize()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Acknowledgement next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, config.batchSize() - batch.size());
+        }
+    }
+
+    private void flush(List<Acknowledgement> batch) {
+        Map<ClaimGroup, List<String>> publishedByClaim = new LinkedHashMap<>();
+        List<Acknowledgement> orderedPublished = new ArrayList<>();
+        List<Acknowledgement> failures = new ArrayList<>();
+
+        for (var ack : batch) {
+            OutboxEntity message = ack.message();
+            if (message.getInternalStatus() == OutboxEntity.Status.PUBLISHED && message.getVersion() > 0) {
+                orderedPublished.add(ack);
+            } else if (message.getInternalStatus() == OutboxEntity.Status.PUBLISHED) {
+                publishedByClaim.computeIfAbsent(new ClaimGroup(ack.claimToken(), ack.claimedStatus()),
+                    group -> new ArrayList<>()).add(message.getId());
+            } else {
+                failures.add(ack);
+            }
+        }
+
+        long started = System.nanoTime();
+        try {
+            var transitions = new Transitions();
+            int written = transactionTemplate.execute(tx -> 
+                writePublished(publishedByClaim, transitions) + writeOrderedPublished(orderedPublished, transitions)
+                    + writeFailures(failures, transitions));
+            transitions.reportTo(statistics);
+            instrumentation.recordAckFlush(batch.size(), System.nanoTime() - started);
+            if (written < batch.size()) {
+                log.debug("{} of {} outcomes skipped because their lease was lost", batch.size() - written, batch.size());
+            }
+            batch.forEach(ack -> ack.flushed().complete(null));
+        } catch (Exception e) {
+            log.error("Failed to record {} publish outcomes; rows will be retried after their lease expires: {}",
+                batch.size(), e.getMessage(), e);
+            batch.forEach(ack -> ack.flushed().completeExceptionally(e));
+        }
+    }
+
+    private int writePublished(Map<ClaimGroup, List<String>> publishedByClaim, Transitions transitions) {
+        LocalDateTime publishedAt = LocalDateTime.now();
+        int written = 0;
+        for (var entry : publishedByClaim.entrySet()) {
+            List<String> ids = entry.getValue();
+            for (int from = 0; from < ids.size(); from += MAX_IN_LIST) {
+                List<String> chunk = ids.subList(from, Math.min(from + MAX_IN_LIST, ids.size()));
+                String sql = """
+                    UPDATE outbox
+                    SET status = 'PUBLISHED', published_at = ?, error_message = NULL,
+                        claim_token = NULL, lease_until = NULL
+                    WHERE claim_token = ? AND id IN (%s)"""
+                    .formatted(String.join(", ", Collections.nCopies(chunk.size(), "?")));
+
+                List<Object> args = new ArrayList<>(chunk.size() + 2);
+                args.add(publishedAt);
+                args.add(entry.getKey().claimToken());
+                args.addAll(chunk);
+                int updated = jdbcTemplate.update(sql, args.toArray());
+                transitions.add(entry.getKey().claimedStatus(), OutboxEntity.Status.PUBLISHED, updated);
+                written += updated;
+            }
+        }
+        return written;
+    }
+
+    private int writeOrderedPublished(List<Acknowledgement> published, Transitions transitions) {
+        if (published.isEmpty()) {
+            return 0;
+        }
+        published.sort(Comparator.comparing((Acknowledgement ack) -> ack.message().getAggregateId())
+            .thenComparing(ack -> ack.message().getVersion()));
+
+        LocalDateTime publishedAt = LocalDateTime.now();
+        List<Object[]> heads = new ArrayList<>(published.size());
+        List<Object[]> successors = new ArrayList<>(published.size());
+        for (var ack : published) {
+            OutboxEntity message = ack.message();
+            // Not batched: drivers may answer SUCCESS_NO_INFO for a batch, and advancing the
+            // head for a row whose lease was lost would release its successor out of order
+            if (jdbcTemplate.update(PUBLISHED_SQL, publishedAt, message.getId(), ack.claimToken()) == 0) {
+                continue;
+            }
+            transitions.add(ack.claimedStatus(), OutboxEntity.Status.PUBLISHED, 1);
+            heads.add(new Object[] { message.getVersion(), message.getAggregateId(), message.getVersion() });
+            successors.add(new Object[] { message.getAggregateId(), message.getVersion() + 1 });
+        }
+        if (!heads.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADVANCE_HEAD_SQL, heads);
+            jdbcTemplate.batchUpdate(MARK_READY_SQL, successors);
+        }
+        return heads.size();
+    }
+
+    private int writeFailures(List<Acknowledgement> failures, Transitions transitions) {
+        if (failures.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> rows = new ArrayList<>(failures.size());
+        for (var ack : failures) {
+            OutboxEntity message = ack.message();
+            rows.add(new Object[] {
+                message.getInternalStatus().name(), message.getRetryCount(), message.getErrorMessage(),
+                message.getRetryAt(), message.getNextRetryAt(), message.getLastRetryDelayMs(),
+                message.getDeadLetterAt(),
+                message.getId(), ack.claimToken()
+            });
+        }
+        int[] counts = jdbcTemplate.batchUpdate(FAILURE_SQL, rows);
+        for (int i = 0; i < counts.length; i++) {
+            var ack = failures.get(i);
+            transitions.add(ack.claimedStatus(), ack.message().getInternalStatus(), written(counts[i]));
+        }
+        return written(counts);
+    }
+
+    private static int written(int[] counts) {
+        int written = 0;
+        for (int count : counts) {
+            written += written(count);
+        }
+        return written;
+    }
+
+    private static int written(int count) {
+        // Drivers may report SUCCESS_NO_INFO (-2) for batched statements
+        return count < 0 ? 1 : count;
+    }
+
+    private record Acknowledgement(String claimToken, OutboxEntity.Status claimedStatus, OutboxEntity message,
+                                   CompletableFuture<Void> flushed) {}
+
+    /** Published messages of one claim token that shared their status when claimed. */
+    private record ClaimGroup(String claimToken, OutboxEntity.Status claimedStatus) {}
+
+    /** Status changes written by one flush, reported once it has committed. */
+    private static final class Transitions {
+
+        private final Map<OutboxEntity.Status, Map<OutboxEntity.Status, Long>> counts =
+            new EnumMap<>(OutboxEntity.Status.class);
+
+        void add(OutboxEntity.Status from, OutboxEntity.Status to, long count) {
+            if (count > 0) {
+                counts.computeIfAbsent(from, status -> new EnumMap<>(OutboxEntity.Status.class))
+                      .merge(to, count, Long::sum);
+            }
+        }
+
+        void reportTo(OutboxStatistics statistics) {
+            counts.forEach((from, targets) ->
+                targets.forEach((to, count) -> statistics.recordTransition(from, to, count)));
+        }
+    }
+}
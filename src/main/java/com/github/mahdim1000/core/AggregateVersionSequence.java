@@ -0,0 +1,83 @@
+package com.github.mahdim1000.core;
+
+import com.github.mahdim1000.domain.AggregateSequenceRepository;
+import com.github.mahdim1000.domain.OutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out versions for ordered events from the {@code outbox_aggregate_sequence} table.
+ * 
+ * Each reservation is a single-row {@code UPDATE ... SET last_version = last_version + n}
+ * inside the caller's transaction. The row lock it takes is held until that transaction
+ * ends, so concurrent writers of the same aggregate get distinct, gap-free versions
+ * regardless of how much history the aggregate has.
+ * 
+ * The same row tracks the head version (last published). The acknowledgement writer
+ * advances it under the same row lock, so a new version is either created ready or
+ * made ready by the publish of its predecessor, never neither.
+ */
+@Component
+public class AggregateVersionSequence {
+    
+    private static final Logger log = LoggerFactory.getLogger(AggregateVersionSequence.class);
+    
+    private final AggregateSequenceRepository sequenceRepository;
+    private final OutboxRepository outboxRepository;
+
+    public AggregateVersionSequence(AggregateSequenceRepository sequenceRepository,
+                                    OutboxRepository outboxRepository) {
+        this.sequenceRepository = sequenceRepository;
+        this.outboxRepository = outboxRepository;
+    }
+
+    /**
+     * Reserves {@code count} consecutive versions for an aggregate.
+     * Must be called inside the transaction that inserts the events.
+     * 
+     * @return the reserved range and whether its first version is next in line
+     */
+    public Reservation reserve(String aggregateId, int count) {
+        // The row must exist before the UPDATE: on InnoDB an UPDATE that matches nothing
+        // takes a gap lock, and two first writers would then deadlock on their inserts
+        if (sequenceRepository.findPosition(aggregateId).isEmpty()) {
+            seed(aggregateId);
+        }
+        if (sequenceRepository.increment(aggregateId, count) == 0) {
+            throw new OutboxException("Version sequence for aggregate " + aggregateId + " could not be created");
+        }
+        var position = sequenceRepository.findPosition(aggregateId)
+            .orElseThrow(() -> new OutboxException("Version sequence for aggregate " + aggregateId + " disappeared"));
+        int firstVersion = position.getLastVersion() - count + 1;
+        return new Reservation(firstVersion, firstVersion == position.getHeadVersion() + 1);
+    }
+
+    /**
+     * Creates the counter row in the caller's transaction. The counter starts at the
+     * highest version already in the outbox, and the head just below the first unpublished
+     * one, which keeps aggregates written before the sequence table existed consistent.
+     * A concurrent creator, in this JVM or on another node, makes the insert wait on the
+     * key and then do nothing, so no second connection or in-process lock is needed.
+     */
+    private void seed(String aggregateId) {
+        int lastVersion = outboxRepository.findMaxVersionByAggregateId(aggregateId).orElse(0);
+        int headVersion = outboxRepository.findFirstUnpublishedVersion(aggregateId)
+            .map(version -> version - 1)
+            .orElse(lastVersion);
+        sequenceRepository.insertIfAbsent(aggregateId, lastVersion, headVersion);
+        if (headVersion < lastVersion) {
+            outboxRepository.markReady(aggregateId, headVersion + 1);
+        }
+        log.debug("Created version sequence for aggregate {} starting after version {}", 
+            aggregateId, lastVersion);
+    }
+
+    /**
+     * A range of versions reserved for one aggregate.
+     * 
+     * @param firstVersion the first reserved version
+     * @param firstReady true if every earlier version has already been published
+     */
+    public record Reservation(int firstVersion, boolean firstReady) {}
+}
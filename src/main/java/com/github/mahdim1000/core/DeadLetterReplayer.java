@@ -0,0 +1,197 @@
+package com.github.mahdim1000.core;
+
+import com.github.f4b6a3.ulid.UlidCreator;
+import com.github.mahdim1000.config.OutboxProperties;
+import com.github.mahdim1000.domain.OutboxEntity;
+import com.github.mahdim1000.domain.OutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moves dead letters back to PENDING at a bounded rate.
+ *
+ * Matching rows are found by walking the primary key upwards and requeued in chunks, each
+ * its own short transaction. After every chunk the replay sleeps until the requeued rows fit
+ * the configured rate, so a large backlog reaches the relay gradually instead of at once.
+ * Each replay runs on its own thread and reports its progress through a {@link Replay}.
+ */
+@Component
+public class DeadLetterReplayer {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadLetterReplayer.class);
+
+    private final OutboxRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties.Replay config;
+    private final OutboxStatistics statistics;
+    private final Map<String, Replay> replays = new ConcurrentHashMap<>();
+
+    public DeadLetterReplayer(OutboxRepository repository,
+                              PlatformTransactionManager transactionManager,
+                              OutboxProperties properties,
+                              OutboxStatistics statistics) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.config = properties.replay();
+        this.statistics = statistics;
+    }
+
+    /**
+     * Starts requeueing the dead letters matching {@code criteria} in the background.
+     */
+    public Replay start(Criteria criteria) {
+        double rate = criteria.rate() != null ? criteria.rate() : config.rate();
+        if (rate <= 0) {
+            throw new IllegalArgumentException("replay rate must be positive");
+        }
+        // Finished replays are kept until the next one starts, so their outcome can be looked up
+        replays.values().removeIf(replay -> replay.getProgress().finished());
+
+        var replay = new Replay(UlidCreator.getUlid().toString(), criteria);
+        replays.put(replay.getId(), replay);
+        Thread.ofPlatform().name("outbox-replay-" + replay.getId()).daemon().start(() -> run(replay, rate));
+        return replay;
+    }
+
+    /**
+     * A running replay, or the outcome of the most recent ones.
+     */
+    public Optional<Replay> find(String id) {
+        return Optional.ofNullable(replays.get(id));
+    }
+
+    private void run(Replay replay, double rate) {
+        var criteria = replay.getCriteria();
+        // A chunk never holds more than about a second's worth of rows
+        int chunkSize = (int) Math.max(1, Math.min(config.chunkSize(), rate));
+        long started = System.nanoTime();
+        String afterId = "";
+        try {
+            while (!replay.cancelled) {
+                List<String> ids = repository.findDeadLetterIds(criteria.topic(), criteria.from(), criteria.to(),
+                    criteria.errorPattern(), afterId, chunkSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                Integer requeued = transactionTemplate.execute(
+                    tx -> repository.requeueDeadLetters(ids, LocalDateTime.now()));
+                statistics.recordTransition(OutboxEntity.Status.DEAD_LETTER, OutboxEntity.Status.PENDING, requeued);
+                afterId = ids.get(ids.size() - 1);
+                replay.advance(requeued, System.nanoTime() - started);
+
+                if (ids.size() < chunkSize || !throttle(replay.getProgress().requeued(), rate, started)) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Dead letter replay {} failed after {} rows: {}", replay.getId(),
+                replay.getProgress().requeued(), e.getMessage(), e);
+            replay.finish(System.nanoTime() - started, e);
+            return;
+        }
+
+        replay.finish(System.nanoTime() - started, null);
+        var progress = replay.getProgress();
+        log.info("Dead letter replay {} requeued {} rows in {} ms ({} rows/s){}", replay.getId(),
+            progress.requeued(), progress.elapsed().toMillis(), Math.round(progress.rowsPerSecond()),
+            replay.cancelled ? ", cancelled" : "");
+    }
+
+    /**
+     * Sleeps until {@code requeued} rows are within {@code rate} rows per second of {@code started}.
+     */
+    private static boolean throttle(long requeued, double rate, long started) {
+        long dueNanos = started + (long) (requeued / rate * 1_000_000_000L);
+        long waitNanos = dueNanos - System.nanoTime();
+        if (waitNanos <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(waitNanos));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Which dead letters to requeue; null fields match everything.
+     *
+     * @param from lower bound (inclusive) of when the events were dead-lettered
+     * @param to upper bound (exclusive) of when the events were dead-lettered
+     * @param errorPattern SQL {@code LIKE} pattern for the last error message, e.g. {@code %timeout%}
+     * @param rate rows per second, or null for {@code outbox.replay.rate}
+     */
+    public record Criteria(String topic, LocalDateTime from, LocalDateTime to, String errorPattern, Double rate) {}
+
+    /**
+     * Snapshot of a replay.
+     *
+     * @param requeued rows moved back to PENDING so far
+     * @param chunks chunks committed so far
+     * @param error why the replay stopped early, if it failed
+     */
+    public record Progress(long requeued, int chunks, Duration elapsed, boolean finished, String error) {
+
+        public double rowsPerSecond() {
+            long nanos = elapsed.toNanos();
+            return nanos == 0 ? 0 : requeued * 1_000_000_000.0 / nanos;
+        }
+    }
+
+    /**
+     * Handle of a replay started with {@link #start}.
+     */
+    public static final class Replay {
+
+        private final String id;
+        private final Criteria criteria;
+        private final CompletableFuture<Progress> completion = new CompletableFuture<>();
+        private volatile Progress progress = new Progress(0, 0, Duration.ZERO, false, null);
+        private volatile boolean cancelled;
+
+        Replay(String id, Criteria criteria) {
+            this.id = id;
+            this.criteria = criteria;
+        }
+
+        public String getId() { return id; }
+        public Criteria getCriteria() { return criteria; }
+        public Progress getProgress() { return progress; }
+
+        /** Completes with the final progress once the replay has finished. */
+        public CompletableFuture<Progress> completion() { return completion; }
+
+        /**
+         * Stops the replay after the current chunk; rows already requeued stay PENDING.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        void advance(int requeued, long elapsedNanos) {
+            var current = progress;
+            progress = new Progress(current.requeued() + requeued, current.chunks() + 1,
+                Duration.ofNanos(elapsedNanos), false, null);
+        }
+
+        void finish(long elapsedNanos, Exception error) {
+            var current = progress;
+            progress = new Progress(current.requeued(), current.chunks(), Duration.ofNanos(elapsedNanos), true,
+                error != null ? error.getMessage() : null);
+            completion.complete(progress);
+        }
+    }
+}
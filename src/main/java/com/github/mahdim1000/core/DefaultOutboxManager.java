@@ -1,6 +1,5 @@
 package com.github.mahdim1000.core;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.mahdim1000.api.OutboxMetrics;
 import com.github.mahdim1000.config.OutboxProperties;
@@ -9,8 +8,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Default implementation of OutboxManager.
@@ -22,11 +28,17 @@ public class DefaultOutboxManager implements OutboxManager {
     private static final Logger log = LoggerFactory.getLogger(DefaultOutboxManager.class);
     
     private final OutboxService outboxService;
+    private final PublisherHealthProbe healthProbe;
+    private final DeadLetterReplayer deadLetterReplayer;
     
     public DefaultOutboxManager(OutboxService outboxService, 
                                ObjectMapper objectMapper,
-                               OutboxProperties properties) {
+                               OutboxProperties properties,
+                               PublisherHealthProbe healthProbe,
+                               DeadLetterReplayer deadLetterReplayer) {
         this.outboxService = outboxService;
+        this.healthProbe = healthProbe;
+        this.deadLetterReplayer = deadLetterReplayer;
     }
     
     @Override
@@ -39,6 +51,39 @@ public class DefaultOutboxManager implements OutboxManager {
         return new DefaultOutboxEventBuilder(topic, aggregateId, payload, true);
     }
     
+    @Override
+    public <T> OutboxBatchBuilder publishAll(String topic, Collection<T> payloads, 
+                                             Function<? super T, String> aggregateId) {
+        return addAll(batch(), topic, payloads, aggregateId, false);
+    }
+    
+    @Override
+    public <T> OutboxBatchBuilder publishAllOrdered(String topic, Collection<T> payloads, 
+                                                    Function<? super T, String> aggregateId) {
+        return addAll(batch(), topic, payloads, aggregateId, true);
+    }
+    
+    @Override
+    public OutboxBatchBuilder batch() {
+        return new DefaultOutboxBatchBuilder();
+    }
+    
+    private <T> OutboxBatchBuilder addAll(OutboxBatchBuilder builder, String topic, Collection<T> payloads,
+                                          Function<? super T, String> aggregateId, boolean ordered) {
+        if (payloads == null) {
+            throw new IllegalArgumentException("Payloads cannot be null");
+        }
+        for (T payload : payloads) {
+            String id = aggregateId.apply(payload);
+            if (ordered) {
+                builder.addOrdered(topic, id, payload);
+            } else {
+                builder.add(topic, id, payload);
+            }
+        }
+        return builder;
+    }
+    
     @Override
     public OutboxMetrics getMetrics() {
         return outboxService.getMetrics();
@@ -47,14 +92,24 @@ public class DefaultOutboxManager implements OutboxManager {
     @Override
     public boolean isHealthy() {
         try {
-            var metrics = getMetrics();
-            return metrics.isHealthy();
+            // The publisher is probed in the background; this only reads the cached result
+            return healthProbe.isHealthy() && getMetrics().isHealthy();
         } catch (Exception e) {
             log.warn("Health check failed: {}", e.getMessage());
             return false;
         }
     }
     
+    @Override
+    public ReplayBuilder replayDeadLetters() {
+        return new DefaultReplayBuilder();
+    }
+    
+    @Override
+    public Optional<DeadLetterReplayer.Replay> findReplay(String id) {
+        return deadLetterReplayer.find(id);
+    }
+    
     /**
      * Internal builder implementation with fluent API.
      */
@@ -77,7 +132,7 @@ public class DefaultOutboxManager implements OutboxManager {
         @Override
         public OutboxEventBuilder withHeaders(Map<String, String> headers) {
             if (headers != null) {
-                this.headers.putAll(headers);
+                headers.forEach(this::withHeader);
             }
             return this;
         }
@@ -108,7 +163,7 @@ public class DefaultOutboxManager implements OutboxManager {
                 log.debug("Successfully queued {} event for aggregate {} to topic {}", 
                     ordered ? "ordered" : "unordered", aggregateId, topic);
                     
-            } catch (JsonProcessingException e) {
+            } catch (IOException e) {
                 log.error("Failed to serialize payload for aggregate {} to topic {}: {}", 
                     aggregateId, topic, e.getMessage());
                 throw new OutboxException("Failed to serialize event payload", e);
@@ -118,26 +173,142 @@ public class DefaultOutboxManager implements OutboxManager {
                 throw new OutboxException("Failed to create outbox event", e);
             }
         }
+    }
+    
+    private String validateTopic(String topic) {
+        if (topic == null || topic.trim().isEmpty()) {
+            throw new IllegalArgumentException("Topic cannot be null or empty");
+        }
+        return topic.trim();
+    }
+    
+    private String validateAggregateId(String aggregateId) {
+        if (aggregateId == null || aggregateId.trim().isEmpty()) {
+            throw new IllegalArgumentException("AggregateId cannot be null or empty");
+        }
+        return aggregateId.trim();
+    }
+    
+    private Object validatePayload(Object payload) {
+        if (payload == null) {
+            throw new IllegalArgumentException("Payload cannot be null");
+        }
+        return payload;
+    }
+    
+    /**
+     * Batch builder collecting drafts that are inserted together on execute.
+     */
+    private class DefaultOutboxBatchBuilder implements OutboxBatchBuilder {
+        
+        private final List<OutboxService.MessageDraft> drafts = new ArrayList<>();
+        private final Map<String, String> headers = new HashMap<>();
+        private boolean retryable = true;
+        
+        @Override
+        public OutboxBatchBuilder add(String topic, String aggregateId, Object payload) {
+            drafts.add(new OutboxService.MessageDraft(validateTopic(topic), validateAggregateId(aggregateId),
+                validatePayload(payload), false));
+            return this;
+        }
+        
+        @Override
+        public OutboxBatchBuilder addOrdered(String topic, String aggregateId, Object payload) {
+            drafts.add(new OutboxService.MessageDraft(validateTopic(topic), validateAggregateId(aggregateId),
+                validatePayload(payload), true));
+            return this;
+        }
+        
+        @Override
+        public OutboxBatchBuilder withHeaders(Map<String, String> headers) {
+            if (headers != null) {
+                headers.forEach(this::withHeader);
+            }
+            return this;
+        }
+        
+        @Override
+        public OutboxBatchBuilder withHeader(String key, String value) {
+            if (key != null && value != null) {
+                this.headers.put(key, value);
+            }
+            return this;
+        }
         
-        private String validateTopic(String topic) {
-            if (topic == null || topic.trim().isEmpty()) {
-                throw new IllegalArgumentException("Topic cannot be null or empty");
+        @Override
+        public OutboxBatchBuilder retryable(boolean retryable) {
+            this.retryable = retryable;
+            return this;
+        }
+        
+        @Override
+        public int execute() {
+            if (drafts.isEmpty()) {
+                return 0;
+            }
+            try {
+                outboxService.createMessages(drafts, headers, retryable);
+                log.debug("Successfully queued batch of {} events", drafts.size());
+                return drafts.size();
+                
+            } catch (IOException e) {
+                log.error("Failed to serialize payload in batch of {} events: {}", drafts.size(), e.getMessage());
+                throw new OutboxException("Failed to serialize event payload", e);
+            } catch (Exception e) {
+                log.error("Failed to create batch of {} outbox events: {}", drafts.size(), e.getMessage());
+                throw new OutboxException("Failed to create outbox events", e);
             }
-            return topic.trim();
+        }
+    }
+    
+    /**
+     * Replay builder collecting the filters handed to the {@link DeadLetterReplayer}.
+     */
+    private class DefaultReplayBuilder implements ReplayBuilder {
+        
+        private String topic;
+        private LocalDateTime from;
+        private LocalDateTime to;
+        private String errorPattern;
+        private Double rate;
+        
+        @Override
+        public ReplayBuilder topic(String topic) {
+            this.topic = validateTopic(topic);
+            return this;
         }
         
-        private String validateAggregateId(String aggregateId) {
-            if (aggregateId == null || aggregateId.trim().isEmpty()) {
-                throw new IllegalArgumentException("AggregateId cannot be null or empty");
+        @Override
+        public ReplayBuilder deadLetteredBetween(LocalDateTime from, LocalDateTime to) {
+            if (from != null && to != null && !from.isBefore(to)) {
+                throw new IllegalArgumentException("Replay range must start before it ends");
             }
-            return aggregateId.trim();
+            this.from = from;
+            this.to = to;
+            return this;
+        }
+        
+        @Override
+        public ReplayBuilder errorMatching(String pattern) {
+            this.errorPattern = pattern;
+            return this;
         }
         
-        private Object validatePayload(Object payload) {
-            if (payload == null) {
-                throw new IllegalArgumentException("Payload cannot be null");
+        @Override
+        public ReplayBuilder rate(double rowsPerSecond) {
+            if (rowsPerSecond <= 0) {
+                throw new IllegalArgumentException("Replay rate must be positive");
             }
-            return payload;
+            this.rate = rowsPerSecond;
+            return this;
+        }
+        
+        @Override
+        public DeadLetterReplayer.Replay start() {
+            var replay = deadLetterReplayer.start(new DeadLetterReplayer.Criteria(topic, from, to, errorPattern, rate));
+            log.info("Started dead letter replay {} (topic {}, rate {})", replay.getId(),
+                topic != null ? topic : "any", rate != null ? rate : "default");
+            return replay;
         }
     }
 }
@@ -0,0 +1,101 @@
+package com.github.mahdim1000.core;
+
+import com.github.mahdim1000.config.OutboxProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes messages straight after their transaction commits.
+ *
+ * Workers drain the {@link HandoffQueue} and relay what they took as one batch, without
+ * reading the rows back. The scheduled {@link OutboxProcessor} stays the recovery path:
+ * messages that never reach a worker, e.g. because the node stopped, are relayed by the
+ * poller once their lease expires.
+ */
+@Component
+@ConditionalOnExpression("${outbox.processing.enabled:true} and ${outbox.handoff.enabled:true}")
+public class DirectRelay implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectRelay.class);
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final HandoffQueue queue;
+    private final OutboxService outboxService;
+    private final OutboxProperties.Processing config;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public DirectRelay(HandoffQueue queue, OutboxService outboxService, OutboxProperties properties) {
+        this.queue = queue;
+        this.outboxService = outboxService;
+        this.config = properties.processing();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        var threads = config.executor() == OutboxProperties.ExecutorType.VIRTUAL
+            ? Thread.ofVirtual().name("outbox-handoff-", 0)
+            : Thread.ofPlatform().name("outbox-handoff-", 0).daemon();
+        for (int i = 0; i < config.lanes(); i++) {
+            workers.add(threads.start(this::run));
+        }
+        queue.open();
+    }
+
+    @Override
+    public void stop() {
+        queue.close();
+        running = false;
+        for (var worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.clear();
+
+        // Committed while stopping; hand the rows back to the pollers
+        List<HandoffQueue.Handoff> remaining = new ArrayList<>();
+        queue.drainTo(remaining, Integer.MAX_VALUE);
+        remaining.forEach(handoff -> outboxService.releaseClaims(handoff.claimToken(), handoff.messages()));
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        List<HandoffQueue.Handoff> batch = new ArrayList<>();
+        while (running) {
+            try {
+                var first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, config.batchSize() - 1);
+                outboxService.relayHandoffs(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Unexpected error in direct relay; messages will be relayed after lease expiry: {}",
+                    e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+}
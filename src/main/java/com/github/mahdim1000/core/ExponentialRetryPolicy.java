@@ -0,0 +1,58 @@
+package com.github.mahdim1000.core;
+
+import com.github.mahdim1000.api.OutboxEvent;
+import com.github.mahdim1000.api.PublishingException;
+import com.github.mahdim1000.api.RetryPolicy;
+import com.github.mahdim1000.config.OutboxProperties;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * {@link RetryPolicy} backing off exponentially with millisecond precision, as configured
+ * under {@code outbox.retry} and its per-topic overrides.
+ * Failures reported as not {@link PublishingException#isRetryable() retryable} are dead-lettered at once.
+ */
+public class ExponentialRetryPolicy implements RetryPolicy {
+
+    private final OutboxProperties.Retry defaults;
+    private final Map<String, OutboxProperties.Retry> topics;
+
+    public ExponentialRetryPolicy(OutboxProperties.Retry retry) {
+        this.defaults = retry;
+        this.topics = retry.topics().keySet().stream()
+            .collect(Collectors.toUnmodifiableMap(topic -> topic, retry::forTopic));
+    }
+
+    @Override
+    public Duration nextDelay(OutboxEvent event, int attempt, Duration previousDelay, Throwable failure) {
+        if (failure instanceof PublishingException e && !e.isRetryable()) {
+            return null;
+        }
+        var retry = topics.getOrDefault(event.getTopic(), defaults);
+        if (attempt >= retry.maxRetries()) {
+            return null;
+        }
+        
+        long base = retry.initialDelay().toMillis();
+        long cap = retry.maxDelay().toMillis();
+        var random = ThreadLocalRandom.current();
+        long delay = switch (retry.jitter()) {
+            case NONE -> exponential(base, cap, retry.multiplier(), attempt);
+            case FULL -> random.nextLong(exponential(base, cap, retry.multiplier(), attempt) + 1);
+            case DECORRELATED -> {
+                long previous = previousDelay == null ? base : Math.max(base, previousDelay.toMillis());
+                long upper = (long) Math.min(cap, previous * retry.multiplier());
+                yield upper > base ? random.nextLong(base, upper + 1) : base;
+            }
+        };
+        return Duration.ofMillis(Math.min(cap, delay));
+    }
+
+    private static long exponential(long base, long cap, double multiplier, int attempt) {
+        // Doubles saturate instead of overflowing for large attempts
+        return (long) Math.min(cap, base * Math.pow(multiplier, attempt - 1));
+    }
+}
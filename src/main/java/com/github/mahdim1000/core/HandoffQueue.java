@@ -0,0 +1,67 @@
+package com.github.mahdim1000.core;
+
+import com.github.mahdim1000.config.OutboxProperties;
+import com.github.mahdim1000.domain.OutboxEntity;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory queue of committed messages waiting for the {@link DirectRelay}.
+ *
+ * Messages are inserted already claimed by this node, so pollers leave them alone while
+ * they sit here. The queue only accepts messages while a relay is consuming it; anything
+ * that is not accepted keeps its lease and falls back to the poller.
+ */
+@Component
+public class HandoffQueue {
+
+    private final BlockingQueue<Handoff> queue;
+    private volatile boolean open;
+
+    public HandoffQueue(OutboxProperties properties) {
+        this.queue = new LinkedBlockingQueue<>(properties.handoff().queueCapacity());
+    }
+
+    /**
+     * Whether messages inserted now may be pre-claimed for direct hand-off.
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Queues committed messages without blocking the committing thread.
+     *
+     * @return {@code false} if the queue is closed or full
+     */
+    public boolean offer(String claimToken, List<OutboxEntity> messages) {
+        return open && queue.offer(new Handoff(claimToken, messages));
+    }
+
+    void open() {
+        open = true;
+    }
+
+    void close() {
+        open = false;
+    }
+
+    Handoff poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.poll(timeout, unit);
+    }
+
+    int drainTo(Collection<Handoff> target, int maxElements) {
+        return queue.drainTo(target, maxElements);
+    }
+
+    /**
+     * Messages of one committed transaction and the token they were claimed with.
+     */
+    record Handoff(String claimToken, List<OutboxEntity> messages) {}
+}
@@ -0,0 +1,75 @@
+package com.github.mahdim1000.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.mahdim1000.api.PayloadCodec;
+import com.github.mahdim1000.config.OutboxProperties;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link PayloadCodec} writing JSON, Smile or CBOR with Jackson.
+ * The binary formats reuse the modules and settings of the application's {@link ObjectMapper}.
+ */
+public class JacksonPayloadCodec implements PayloadCodec {
+
+    private final ObjectWriter writer;
+    private final String contentType;
+
+    public JacksonPayloadCodec(ObjectMapper objectMapper, String contentType) {
+        this.writer = objectMapper.writer();
+        this.contentType = contentType;
+    }
+
+    /**
+     * Creates the codec for a configured payload format.
+     *
+     * @throws IllegalStateException if the Jackson data format module of a binary format is missing
+     */
+    public static JacksonPayloadCodec of(OutboxProperties.PayloadFormat format, ObjectMapper objectMapper) {
+        return switch (format) {
+            case JSON -> new JacksonPayloadCodec(objectMapper, "application/json");
+            case SMILE -> {
+                requireModule("com.fasterxml.jackson.dataformat.smile.SmileFactory", "jackson-dataformat-smile");
+                yield new JacksonPayloadCodec(Smile.mapper(objectMapper), "application/x-jackson-smile");
+            }
+            case CBOR -> {
+                requireModule("com.fasterxml.jackson.dataformat.cbor.CBORFactory", "jackson-dataformat-cbor");
+                yield new JacksonPayloadCodec(Cbor.mapper(objectMapper), "application/cbor");
+            }
+        };
+    }
+
+    @Override
+    public byte[] encode(Object payload) throws JsonProcessingException {
+        return writer.writeValueAsBytes(payload);
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    private static void requireModule(String className, String artifactId) {
+        if (!ClassUtils.isPresent(className, JacksonPayloadCodec.class.getClassLoader())) {
+            throw new IllegalStateException("outbox.payload.format requires com.fasterxml.jackson.dataformat:"
+                + artifactId + " on the classpath");
+        }
+    }
+
+    // Binary factories are only referenced from these holders so the modules stay optional
+
+    private static final class Smile {
+        static ObjectMapper mapper(ObjectMapper objectMapper) {
+            return objectMapper.copyWith(new SmileFactory());
+        }
+    }
+
+    private static final class Cbor {
+        static ObjectMapper mapper(ObjectMapper objectMapper) {
+            return objectMapper.copyWith(new CBORFactory());
+        }
+    }
+}
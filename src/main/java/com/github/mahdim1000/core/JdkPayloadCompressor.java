@@ -0,0 +1,79 @@
+package com.github.mahdim1000.core;
+
+import com.github.mahdim1000.api.PayloadCompressor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compressors built on {@code java.util.zip}, always available.
+ */
+public enum JdkPayloadCompressor implements PayloadCompressor {
+
+    /** RFC 1952 gzip. */
+    GZIP("gzip") {
+        @Override
+        OutputStream compressing(OutputStream out) throws IOException {
+            return new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+
+        @Override
+        InputStream decompressing(InputStream in) throws IOException {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+    },
+
+    /** RFC 1950 zlib, which HTTP calls deflate. */
+    DEFLATE("deflate") {
+        @Override
+        OutputStream compressing(OutputStream out) {
+            return new DeflaterOutputStream(out);
+        }
+
+        @Override
+        InputStream decompressing(InputStream in) {
+            return new InflaterInputStream(in);
+        }
+    };
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String encoding;
+
+    JdkPayloadCompressor(String encoding) {
+        this.encoding = encoding;
+    }
+
+    @Override
+    public String getEncoding() {
+        return encoding;
+    }
+
+    @Override
+    public byte[] compress(byte[] payload) throws IOException {
+        // Documents this large usually compress well below half their size
+        var buffer = new ByteArrayOutputStream(Math.max(64, payload.length / 4));
+        try (var out = compressing(buffer)) {
+            out.write(payload);
+        }
+        return buffer.toByteArray();
+    }
+
+    @Override
+    public byte[] decompress(byte[] compressed) throws IOException {
+        try (var in = decompressing(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    abstract OutputStream compressing(OutputStream out) throws IOException;
+
+    abstract InputStream decompressing(InputStream in) throws IOException;
+}
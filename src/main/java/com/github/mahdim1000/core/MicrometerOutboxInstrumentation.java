@@ -0,0 +1,144 @@
+package com.github.mahdim1000.core;
+
+import com.github.mahdim1000.domain.OutboxEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OutboxInstrumentation} recording Micrometer timers, distribution summaries and counters.
+ * Meters are resolved once per tag combination and cached, so recording on the hot path is
+ * a map lookup plus the meter update. Topics become tag values; keep their number bounded.
+ */
+public class MicrometerOutboxInstrumentation implements OutboxInstrumentation {
+
+    private final MeterRegistry registry;
+
+    private final Timer insertTimer;
+    private final DistributionSummary insertSize;
+    private final Map<OutboxEntity.Status, Timer> claimTimers = new ConcurrentHashMap<>();
+    private final Map<OutboxEntity.Status, DistributionSummary> batchSizes = new ConcurrentHashMap<>();
+    private final Map<SendKey, Timer> sendTimers = new ConcurrentHashMap<>();
+    private final Timer ackFlushTimer;
+    private final DistributionSummary ackFlushSize;
+    private final Map<String, Timer> lagTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> retryCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> deadLetterCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> deferredCounters = new ConcurrentHashMap<>();
+    private final Map<ProbeKey, Timer> probeTimers = new ConcurrentHashMap<>();
+
+    public MicrometerOutboxInstrumentation(MeterRegistry registry) {
+        this.registry = registry;
+        this.insertTimer = Timer.builder("outbox.insert")
+            .description("Time to write messages to the outbox table")
+            .register(registry);
+        this.insertSize = DistributionSummary.builder("outbox.insert.size")
+            .description("Messages written per insert call")
+            .register(registry);
+        this.ackFlushTimer = Timer.builder("outbox.ack.flush")
+            .description("Time to commit a group of publish outcomes")
+            .register(registry);
+        this.ackFlushSize = DistributionSummary.builder("outbox.ack.flush.size")
+            .description("Publish outcomes committed per flush")
+            .register(registry);
+    }
+
+    @Override
+    public void recordInsert(int count, long nanos) {
+        insertTimer.record(nanos, TimeUnit.NANOSECONDS);
+        insertSize.record(count);
+    }
+
+    @Override
+    public void recordClaim(OutboxEntity.Status status, int claimed, long nanos) {
+        claimTimers.computeIfAbsent(status, s -> Timer.builder("outbox.claim")
+                .description("Time to claim a batch of messages")
+                .tag("status", tagValue(s))
+                .register(registry))
+            .record(nanos, TimeUnit.NANOSECONDS);
+        batchSizes.computeIfAbsent(status, s -> DistributionSummary.builder("outbox.relay.batch.size")
+                .description("Messages claimed per relay batch")
+                .tag("status", tagValue(s))
+                .register(registry))
+            .record(claimed);
+    }
+
+    @Override
+    public void recordSend(String topic, String publisherType, boolean success, long nanos) {
+        sendTimers.computeIfAbsent(new SendKey(topic, publisherType, success), key -> Timer.builder("outbox.publish")
+                .description("Time from handing a message to the publisher until the broker answered")
+                .tag("topic", key.topic())
+                .tag("publisher", key.publisherType())
+                .tag("outcome", key.success() ? "success" : "failure")
+                .publishPercentileHistogram()
+                .register(registry))
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordAckFlush(int outcomes, long nanos) {
+        ackFlushTimer.record(nanos, TimeUnit.NANOSECONDS);
+        ackFlushSize.record(outcomes);
+    }
+
+    @Override
+    public void recordPublished(String topic, Duration lag) {
+        lagTimers.computeIfAbsent(topic, t -> Timer.builder("outbox.lag")
+                .description("Time from creating a message until it was published")
+                .tag("topic", t)
+                .publishPercentileHistogram()
+                .register(registry))
+            .record(lag.isNegative() ? Duration.ZERO : lag);
+    }
+
+    @Override
+    public void recordRetry(String topic) {
+        retryCounters.computeIfAbsent(topic, t -> Counter.builder("outbox.retries")
+                .description("Failed sends scheduled for retry")
+                .tag("topic", t)
+                .register(registry))
+            .increment();
+    }
+
+    @Override
+    public void recordDeadLetter(String topic) {
+        deadLetterCounters.computeIfAbsent(topic, t -> Counter.builder("outbox.dead.letters")
+                .description("Messages moved to the dead letter state")
+                .tag("topic", t)
+                .register(registry))
+            .increment();
+    }
+
+    @Override
+    public void recordDeferred(String topic) {
+        deferredCounters.computeIfAbsent(topic, t -> Counter.builder("outbox.deferred")
+                .description("Messages put back without an attempt while their circuit was open")
+                .tag("topic", t)
+                .register(registry))
+            .increment();
+    }
+
+    @Override
+    public void recordHealthProbe(String publisherType, boolean healthy, long nanos) {
+        probeTimers.computeIfAbsent(new ProbeKey(publisherType, healthy), key -> Timer.builder("outbox.health.probe")
+                .description("Time to check the publisher's broker connection")
+                .tag("publisher", key.publisherType())
+                .tag("outcome", key.healthy() ? "healthy" : "unhealthy")
+                .register(registry))
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String tagValue(OutboxEntity.Status status) {
+        return status.name().toLowerCase();
+    }
+
+    private record SendKey(String topic, String publisherType, boolean success) {}
+
+    private record ProbeKey(String publisherType, boolean healthy) {}
+}
@@ -0,0 +1,44 @@
+package com.github.mahdim1000.core;
+
+import com.github.mahdim1000.domain.OutboxEntity;
+
+import java.time.Duration;
+
+/**
+ * Hooks for measuring the relay hot path.
+ *
+ * A Micrometer-backed implementation is registered automatically when Micrometer is on the
+ * classpath; otherwise {@link #NOOP} is used and every call is an empty method.
+ * Durations are passed in nanoseconds as measured with {@link System#nanoTime()}.
+ */
+public interface OutboxInstrumentation {
+
+    OutboxInstrumentation NOOP = new OutboxInstrumentation() {};
+
+    /** Messages inserted by one call, and how long the insert took. */
+    default void recordInsert(int count, long nanos) {}
+
+    /** A claim transaction of the pending or failed relay. */
+    default void recordClaim(OutboxEntity.Status status, int claimed, long nanos) {}
+
+    /** A single send, from hand-over to the publisher until the broker answered. */
+    default void recordSend(String topic, String publisherType, boolean success, long nanos) {}
+
+    /** A group commit of the acknowledgement writer. */
+    default void recordAckFlush(int outcomes, long nanos) {}
+
+    /** A message published {@code lag} after it was created. */
+    default void recordPublished(String topic, Duration lag) {}
+
+    /** A failed send that will be retried. */
+    default void recordRetry(String topic) {}
+
+    /** A message moved to the dead letter state. */
+    default void recordDeadLetter(String topic) {}
+
+    /** A message put back without counting an attempt because its circuit is open. */
+    default void recordDeferred(String topic) {}
+
+    /** A background health check of the publisher. */
+    default void recordHealthProbe(String publisherType, boolean healthy, long nanos) {}
+}
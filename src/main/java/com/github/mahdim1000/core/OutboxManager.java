@@ -1,8 +1,13 @@
 package com.github.mahdim1000.core;
 
 import com.github.mahdim1000.api.OutboxMetrics;
+import com.github.mahdim1000.api.PayloadCodec;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Main facade for the Outbox Pattern library.
@@ -17,6 +22,16 @@ import java.util.Map;
  * outboxManager.publishOrdered("order.events", orderId, orderEvent)
  *             .withHeaders(Map.of("version", "1.0"))
  *             .retryable(true);
+ * 
+ * // Bulk insert, e.g. from an import job
+ * outboxManager.publishAll("user.imported", users, User::getId)
+ *             .execute();
+ * 
+ * // Requeue dead letters after an outage, 50 per second
+ * outboxManager.replayDeadLetters()
+ *             .topic("order.events")
+ *             .rate(50)
+ *             .start();
  * </pre>
  */
 public interface OutboxManager {
@@ -27,7 +42,7 @@ public interface OutboxManager {
      * 
      * @param topic the destination topic/queue
      * @param aggregateId the business entity identifier
-     * @param payload the event payload (will be JSON serialized)
+     * @param payload the event payload (encoded by the configured {@link PayloadCodec}, compressed if enabled)
      * @return fluent builder for additional configuration
      */
     OutboxEventBuilder publish(String topic, String aggregateId, Object payload);
@@ -38,11 +53,39 @@ public interface OutboxManager {
      * 
      * @param topic the destination topic/queue  
      * @param aggregateId the business entity identifier
-     * @param payload the event payload (will be JSON serialized)
+     * @param payload the event payload (encoded by the configured {@link PayloadCodec}, compressed if enabled)
      * @return fluent builder for additional configuration
      */
     OutboxEventBuilder publishOrdered(String topic, String aggregateId, Object payload);
     
+    /**
+     * Publishes many unordered events to the same topic with batched inserts.
+     * 
+     * @param topic the destination topic/queue
+     * @param payloads the event payloads (each encoded by the configured {@link PayloadCodec}, compressed if enabled)
+     * @param aggregateId extracts the business entity identifier from a payload
+     * @return fluent batch builder for additional configuration
+     */
+    <T> OutboxBatchBuilder publishAll(String topic, Collection<T> payloads, Function<? super T, String> aggregateId);
+    
+    /**
+     * Publishes many ordered events to the same topic with batched inserts.
+     * Events for the same aggregateId are versioned in collection order.
+     * 
+     * @param topic the destination topic/queue
+     * @param payloads the event payloads (each encoded by the configured {@link PayloadCodec}, compressed if enabled)
+     * @param aggregateId extracts the business entity identifier from a payload
+     * @return fluent batch builder for additional configuration
+     */
+    <T> OutboxBatchBuilder publishAllOrdered(String topic, Collection<T> payloads, Function<? super T, String> aggregateId);
+    
+    /**
+     * Starts an empty batch that can mix topics and ordered/unordered events.
+     * 
+     * @return fluent batch builder
+     */
+    OutboxBatchBuilder batch();
+    
     /**
      * Gets current outbox metrics for monitoring.
      * 
@@ -51,19 +94,36 @@ public interface OutboxManager {
     OutboxMetrics getMetrics();
     
     /**
-     * Checks if the outbox system is healthy.
+     * Checks if the outbox system is healthy: the last background probe of the publisher
+     * succeeded and no events are failed or dead. Never contacts the broker.
      * 
      * @return true if healthy, false otherwise
      */
     boolean isHealthy();
     
+    /**
+     * Starts configuring a background replay that moves dead letters back to PENDING.
+     * 
+     * @return fluent replay builder
+     */
+    ReplayBuilder replayDeadLetters();
+    
+    /**
+     * Looks up a replay started on this node.
+     * 
+     * @param id the {@link DeadLetterReplayer.Replay#getId() replay id}
+     * @return the replay, while running and until the next replay starts
+     */
+    Optional<DeadLetterReplayer.Replay> findReplay(String id);
+    
     /**
      * Fluent builder for configuring outbox events.
      */
     interface OutboxEventBuilder {
         
         /**
-         * Adds custom headers to the event.
+         * Adds custom headers to the event. Entries with a {@code null} key or value are
+         * ignored, as with {@link #withHeader}.
          * 
          * @param headers key-value pairs for message headers
          * @return this builder
@@ -94,4 +154,113 @@ public interface OutboxManager {
          */
         void execute();
     }
+    
+    /**
+     * Fluent builder for inserting many events in one round of batched statements.
+     * Headers and the retryable flag apply to every event in the batch.
+     */
+    interface OutboxBatchBuilder {
+        
+        /**
+         * Adds an unordered event to the batch.
+         * 
+         * @param topic the destination topic/queue
+         * @param aggregateId the business entity identifier
+         * @param payload the event payload (encoded by the configured {@link PayloadCodec}, compressed if enabled)
+         * @return this builder
+         */
+        OutboxBatchBuilder add(String topic, String aggregateId, Object payload);
+        
+        /**
+         * Adds an ordered event to the batch.
+         * 
+         * @param topic the destination topic/queue
+         * @param aggregateId the business entity identifier
+         * @param payload the event payload (encoded by the configured {@link PayloadCodec}, compressed if enabled)
+         * @return this builder
+         */
+        OutboxBatchBuilder addOrdered(String topic, String aggregateId, Object payload);
+        
+        /**
+         * Adds custom headers to every event in the batch. Entries with a {@code null} key
+         * or value are ignored, as with {@link #withHeader}.
+         * 
+         * @param headers key-value pairs for message headers
+         * @return this builder
+         */
+        OutboxBatchBuilder withHeaders(Map<String, String> headers);
+        
+        /**
+         * Adds a single header to every event in the batch.
+         * 
+         * @param key header key
+         * @param value header value
+         * @return this builder
+         */
+        OutboxBatchBuilder withHeader(String key, String value);
+        
+        /**
+         * Sets whether the events should be retried on failure.
+         * Default is true.
+         * 
+         * @param retryable true to enable retries, false otherwise
+         * @return this builder
+         */
+        OutboxBatchBuilder retryable(boolean retryable);
+        
+        /**
+         * Executes the publish operation for all events in the batch.
+         * This method must be called within an active transaction.
+         * 
+         * @return number of events written
+         */
+        int execute();
+    }
+    
+    /**
+     * Fluent builder selecting the dead letters to requeue. Without filters every dead
+     * letter is requeued. Ordered events are still relayed in version order.
+     */
+    interface ReplayBuilder {
+        
+        /**
+         * Only requeues events of this topic.
+         * 
+         * @param topic the destination topic/queue
+         * @return this builder
+         */
+        ReplayBuilder topic(String topic);
+        
+        /**
+         * Only requeues events dead-lettered in this range; either bound may be null.
+         * 
+         * @param from inclusive lower bound
+         * @param to exclusive upper bound
+         * @return this builder
+         */
+        ReplayBuilder deadLetteredBetween(LocalDateTime from, LocalDateTime to);
+        
+        /**
+         * Only requeues events whose last error matches a SQL {@code LIKE} pattern.
+         * 
+         * @param pattern e.g. {@code "%timed out%"}
+         * @return this builder
+         */
+        ReplayBuilder errorMatching(String pattern);
+        
+        /**
+         * Overrides {@code outbox.replay.rate}.
+         * 
+         * @param rowsPerSecond how many events are requeued per second at most
+         * @return this builder
+         */
+        ReplayBuilder rate(double rowsPerSecond);
+        
+        /**
+         * Starts the replay in the background.
+         * 
+         * @return handle reporting progress and throughput
+         */
+        DeadLetterReplayer.Replay start();
+    }
 }
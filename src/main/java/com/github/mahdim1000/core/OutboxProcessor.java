@@ -3,68 +3,177 @@ package com.github.mahdim1000.core;
 import com.github.mahdim1000.config.OutboxProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.locks.ReentrantLock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
 
 /**
- * Scheduled processor for outbox events.
- * Runs periodically to process pending and failed messages.
+ * Polling processor for outbox events.
+ * Keeps relaying pending and failed messages, one adaptive loop per lane and status.
+ *
+ * A lane owns the aggregates hashed to it and runs at most one batch at a time, so events
+ * of an aggregate are never relayed concurrently while unrelated aggregates proceed in
+ * parallel. After a full batch a loop polls again immediately; after a partial batch it
+ * waits the minimum interval; after an empty one it backs off exponentially up to
+ * {@code publish-rate} (pending) or {@code retry-rate} (failed). The failed loops never
+ * back off past the shortest configured initial retry delay, since nothing wakes them
+ * when a retry falls due.
  */
 @Component
 @ConditionalOnProperty(name = "outbox.processing.enabled", havingValue = "true", matchIfMissing = true)
-public class OutboxProcessor {
-    
+public class OutboxProcessor implements SmartLifecycle {
+
     private static final Logger log = LoggerFactory.getLogger(OutboxProcessor.class);
-    
-    private final OutboxService outboxService;
-    
-    // Locks to prevent overlapping processing
-    private final ReentrantLock pendingProcessingLock = new ReentrantLock();
-    private final ReentrantLock failedProcessingLock = new ReentrantLock();
-
-    public OutboxProcessor(OutboxService outboxService, OutboxProperties properties) {
-        this.outboxService = outboxService;
+
+    private final Executor executor;
+    private final OutboxProperties.Polling polling;
+    private final int batchSize;
+    private final List<PollLoop> loops = new ArrayList<>();
+
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+
+    public OutboxProcessor(OutboxService outboxService, OutboxProperties properties,
+                           @Qualifier("outboxTaskExecutor") Executor executor) {
+        this.executor = executor;
+        this.polling = properties.polling();
+        this.batchSize = properties.processing().batchSize();
+        Duration failedCeiling = failedCeiling(properties);
+        for (int lane = 0; lane < properties.processing().lanes(); lane++) {
+            loops.add(new PollLoop("pending", lane, properties.processing().publishRate(),
+                outboxService::processPendingMessages));
+            loops.add(new PollLoop("failed", lane, failedCeiling, outboxService::processFailedMessages));
+        }
     }
 
-    @Scheduled(fixedDelayString = "${outbox.processing.publish-rate:PT10S}")
-    @Async("outboxTaskExecutor")
-    public void processPendingMessages() {
-        if (!pendingProcessingLock.tryLock()) {
-            log.debug("Skipping pending message processing - already in progress");
-            return;
+    /**
+     * {@code retry-rate}, lowered to the shortest initial retry delay of any topic so that
+     * an idle loop still picks up a first retry roughly on time.
+     */
+    private static Duration failedCeiling(OutboxProperties properties) {
+        var retry = properties.retry();
+        Duration ceiling = properties.processing().retryRate();
+        if (retry.initialDelay().compareTo(ceiling) < 0) {
+            ceiling = retry.initialDelay();
         }
-        
-        try {
-            log.debug("Starting pending message processing");
-            outboxService.processPendingMessages();
-            log.debug("Completed pending message processing");
-        } catch (Exception e) {
-            log.error("Error during pending message processing: {}", e.getMessage(), e);
-        } finally {
-            pendingProcessingLock.unlock();
+        for (var topic : retry.topics().values()) {
+            if (topic.initialDelay() != null && topic.initialDelay().compareTo(ceiling) < 0) {
+                ceiling = topic.initialDelay();
+            }
         }
+        Duration minInterval = properties.polling().minInterval();
+        return ceiling.compareTo(minInterval) < 0 ? minInterval : ceiling;
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("outbox-poller").daemon().factory());
+        running = true;
+        loops.forEach(loop -> loop.schedule(Duration.ZERO));
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * The polling loops, for monitoring their current intervals.
+     */
+    public List<PollLoop> getPollLoops() {
+        return List.copyOf(loops);
     }
 
-    @Scheduled(fixedDelayString = "${outbox.processing.retry-rate:PT30S}")
-    @Async("outboxTaskExecutor")
-    public void processFailedMessages() {
-        if (!failedProcessingLock.tryLock()) {
-            log.debug("Skipping failed message processing - already in progress");
-            return;
+    /**
+     * Relays one status of one lane, rescheduling itself after every batch.
+     */
+    public final class PollLoop {
+
+        private final String kind;
+        private final int lane;
+        private final Duration maxInterval;
+        private final IntUnaryOperator relay;
+
+        private volatile Duration interval;
+
+        private PollLoop(String kind, int lane, Duration maxInterval, IntUnaryOperator relay) {
+            this.kind = kind;
+            this.lane = lane;
+            this.maxInterval = maxInterval;
+            this.relay = relay;
+            this.interval = polling.minInterval();
         }
-        
-        try {
-            log.debug("Starting failed message processing");
-            outboxService.processFailedMessages();
-            log.debug("Completed failed message processing");
-        } catch (Exception e) {
-            log.error("Error during failed message processing: {}", e.getMessage(), e);
-        } finally {
-            failedProcessingLock.unlock();
+
+        public String getKind() { return kind; }
+        public int getLane() { return lane; }
+
+        /** Delay before the next poll when the previous batch was not full. */
+        public Duration getInterval() { return interval; }
+
+        private void schedule(Duration delay) {
+            if (!running) {
+                return;
+            }
+            try {
+                scheduler.schedule(this::dispatch, delay.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                log.debug("Poller shut down, not rescheduling {} processing for lane {}", kind, lane);
+            }
+        }
+
+        private void dispatch() {
+            try {
+                executor.execute(this::poll);
+            } catch (RejectedExecutionException e) {
+                log.warn("Skipping {} message processing for lane {} - executor saturated", kind, lane);
+                schedule(interval);
+            }
+        }
+
+        private void poll() {
+            int claimed = 0;
+            try {
+                log.debug("Starting {} message processing for lane {}", kind, lane);
+                claimed = relay.applyAsInt(lane);
+                log.debug("Completed {} message processing for lane {}: {} messages", kind, lane, claimed);
+            } catch (Exception e) {
+                log.error("Error during {} message processing for lane {}: {}", kind, lane, e.getMessage(), e);
+            }
+            schedule(nextDelay(claimed));
+        }
+
+        private Duration nextDelay(int claimed) {
+            if (claimed >= batchSize) {
+                interval = polling.minInterval();
+                return Duration.ZERO;
+            }
+            if (claimed > 0) {
+                interval = polling.minInterval();
+            } else {
+                long backedOff = (long) (interval.toNanos() * polling.backoffMultiplier());
+                interval = Duration.ofNanos(Math.min(backedOff, maxInterval.toNanos()));
+            }
+            return interval;
         }
     }
 }
@@ -0,0 +1,96 @@
+package com.github.mahdim1000.core;
+
+import com.github.mahdim1000.api.CompactHeaders;
+import com.github.mahdim1000.api.PayloadCodec;
+import com.github.mahdim1000.api.PayloadCompressor;
+import com.github.mahdim1000.api.PublishRequest;
+import com.github.mahdim1000.domain.OutboxEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Converts payloads and headers to and from their stored form.
+ * Runs once per message on insert and once per message on relay.
+ */
+final class OutboxSerializer {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxSerializer.class);
+
+    private final PayloadCodec codec;
+    private final PayloadCompression compression;
+
+    OutboxSerializer(PayloadCodec codec, PayloadCompression compression) {
+        this.codec = codec;
+        this.compression = compression;
+    }
+
+    /**
+     * Encodes a payload, compressing it if it is large enough.
+     */
+    EncodedPayload writePayload(Object payload) throws IOException {
+        byte[] encoded = codec.encode(payload);
+        var compressed = compression.compress(encoded);
+        return compressed != null ? compressed : new EncodedPayload(encoded, null);
+    }
+
+    /**
+     * Content type of the payloads written by {@link #writePayload}.
+     */
+    String getContentType() {
+        return codec.getContentType();
+    }
+
+    /**
+     * @return the stored headers, or {@code null} when there are none
+     */
+    byte[] writeHeaders(Map<String, String> headers) {
+        return CompactHeaders.encode(headers);
+    }
+
+    /**
+     * Builds the request sending a stored message, decompressing its payload unless the
+     * topic takes it compressed.
+     *
+     * @throws IOException if a compressed payload cannot be decompressed
+     */
+    PublishRequest toRequest(OutboxEntity message) throws IOException {
+        byte[] payload = message.getPayload();
+        String encoding = message.getContentEncoding();
+        if (!compression.forwards(message.getTopic(), encoding)) {
+            if (encoding != null) {
+                payload = compression.decompress(payload, encoding);
+            }
+            encoding = null;
+        }
+        var headers = readHeaders(message.getEncodedHeaders(), message.getContentType(), encoding);
+        return new PublishRequest(message.getId(), message.getTopic(), message.getAggregateId(), payload, headers);
+    }
+
+    /**
+     * Views stored headers with the content type and encoding of the payload added, unless the
+     * event set them itself. Unreadable headers are logged and dropped rather than failing the send.
+     */
+    CompactHeaders readHeaders(byte[] encodedHeaders, String contentType, String contentEncoding) {
+        var headers = CompactHeaders.decode(encodedHeaders);
+        try {
+            headers.size(); // Decodes the keys, so broken headers show up here
+        } catch (IllegalArgumentException e) {
+            log.warn("Failed to read stored headers", e);
+            headers = CompactHeaders.decode(null);
+        }
+        return headers
+            .withDefault(PayloadCodec.CONTENT_TYPE_HEADER, contentType)
+            .withDefault(PayloadCompressor.CONTENT_ENCODING_HEADER, contentEncoding);
+    }
+
+    /**
+     * A payload as stored.
+     *
+     * @param bytes the encoded, possibly compressed payload
+     * @param encoding the compression applied, or {@code null}
+     */
+    record EncodedPayload(byte[] bytes, String encoding) {}
+}
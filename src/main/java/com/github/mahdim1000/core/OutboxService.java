@@ -1,20 +1,45 @@
 package com.github.mahdim1000.core;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.f4b6a3.ulid.UlidCreator;
 import com.github.mahdim1000.api.OutboxMetrics;
-import com.github.mahdim1000.api.EventPublisher;
+import com.github.mahdim1000.api.PayloadCodec;
+import com.github.mahdim1000.api.PayloadCompressor;
+import com.github.mahdim1000.api.PublishRequest;
 import com.github.mahdim1000.api.PublishingException;
+import com.github.mahdim1000.api.RetryPolicy;
 import com.github.mahdim1000.config.OutboxProperties;
 import com.github.mahdim1000.domain.OutboxEntity;
 import com.github.mahdim1000.domain.OutboxRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Internal service for outbox operations.
@@ -25,128 +50,574 @@ public class OutboxService {
     
     private static final Logger log = LoggerFactory.getLogger(OutboxService.class);
     
+    // Below this size, fork/join overhead outweighs parallel serialization
+    private static final int PARALLEL_SERIALIZATION_THRESHOLD = 1000;
+    
     private final OutboxRepository repository;
-    private final ObjectMapper objectMapper;
-    private final EventPublisher eventPublisher;
+    private final OutboxSerializer serializer;
+    private final PublishDispatcher publishDispatcher;
     private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final AcknowledgementWriter acknowledgementWriter;
+    private final AggregateVersionSequence versionSequence;
+    private final HandoffQueue handoffQueue;
+    private final TransactionTemplate releaseTransaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final OutboxStatistics statistics;
+    private final OutboxInstrumentation instrumentation;
+    private final PublisherCircuitBreaker circuitBreaker;
+    private final RetryPolicy retryPolicy;
 
     public OutboxService(OutboxRepository repository,
                         ObjectMapper objectMapper,
-                        EventPublisher eventPublisher,
-                        OutboxProperties properties) {
+                        PublishDispatcher publishDispatcher,
+                        OutboxProperties properties,
+                        PlatformTransactionManager transactionManager,
+                        AcknowledgementWriter acknowledgementWriter,
+                        AggregateVersionSequence versionSequence,
+                        HandoffQueue handoffQueue,
+                        OutboxStatistics statistics,
+                        PublisherCircuitBreaker circuitBreaker,
+                        ObjectProvider<OutboxInstrumentation> instrumentation,
+                        ObjectProvider<PayloadCodec> payloadCodec,
+                        ObjectProvider<PayloadCompressor> payloadCompressors,
+                        ObjectProvider<RetryPolicy> retryPolicy) {
         this.repository = repository;
-        this.objectMapper = objectMapper;
-        this.eventPublisher = eventPublisher;
+        this.acknowledgementWriter = acknowledgementWriter;
+        this.versionSequence = versionSequence;
+        this.serializer = new OutboxSerializer(
+            payloadCodec.getIfAvailable(() -> JacksonPayloadCodec.of(properties.payload().format(), objectMapper)),
+            new PayloadCompression(properties.payload().compression(), payloadCompressors.orderedStream().toList()));
+        this.publishDispatcher = publishDispatcher;
         this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.handoffQueue = handoffQueue;
+        // Claims are released from afterCommit callbacks, which must not join the finished transaction
+        this.releaseTransaction = new TransactionTemplate(transactionManager);
+        this.releaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.statistics = statistics;
+        this.circuitBreaker = circuitBreaker;
+        this.retryPolicy = retryPolicy.getIfAvailable(() -> new ExponentialRetryPolicy(properties.retry()));
+        this.instrumentation = instrumentation.getIfAvailable(() -> OutboxInstrumentation.NOOP);
     }
 
     @Transactional
     public void createUnOrderedMessage(String topic, String aggregateId, Object payload, 
                                       Map<String, String> headers, boolean retryable) 
-                                      throws JsonProcessingException {
-        createMessageWithVersion(topic, aggregateId, payload, 0, headers, retryable);
+                                      throws IOException {
+        createMessageWithVersion(topic, aggregateId, payload, 0, true, headers, retryable);
     }
 
     @Transactional
     public void createOrderedMessage(String topic, String aggregateId, Object payload,
                                     Map<String, String> headers, boolean retryable) 
-                                    throws JsonProcessingException {
-        var version = repository.findMaxVersionByAggregateId(aggregateId)
-                .map(maxVersion -> maxVersion + 1)
-                .orElse(1);
-        createMessageWithVersion(topic, aggregateId, payload, Integer.valueOf(version), headers, retryable);
+                                    throws IOException {
+        var reservation = versionSequence.reserve(aggregateId, 1);
+        createMessageWithVersion(topic, aggregateId, payload, reservation.firstVersion(), 
+                                 reservation.firstReady(), headers, retryable);
     }
 
     private void createMessageWithVersion(String topic, String aggregateId, Object payload, 
-                                         Integer version, Map<String, String> headers, 
-                                         boolean retryable) throws JsonProcessingException {
-        String serializedPayload = objectMapper.writeValueAsString(payload);
-        String serializedHeaders = headers.isEmpty() ? null : objectMapper.writeValueAsString(headers);
+                                         Integer version, boolean ready, Map<String, String> headers, 
+                                         boolean retryable) throws IOException {
+        long started = System.nanoTime();
+        var serializedPayload = serializer.writePayload(payload);
+        byte[] serializedHeaders = serializer.writeHeaders(headers);
         
-        OutboxEntity entity = OutboxEntity.create(topic, aggregateId, serializedPayload, 
+        OutboxEntity entity = OutboxEntity.create(topic, aggregateId, serializedPayload.bytes(), 
+                                                 serializer.getContentType(), serializedPayload.encoding(),
                                                  serializedHeaders, version, retryable);
+        if (ready) {
+            entity.markReady();
+        }
         
+        String claimToken = claimForHandoff(List.of(entity));
         repository.save(entity);
+        handOffAfterCommit(claimToken, List.of(entity));
+        statistics.recordInserted(1);
+        instrumentation.recordInsert(1, System.nanoTime() - started);
         log.debug("Created outbox message for aggregate {} with version {}", aggregateId, version);
     }
 
+    /**
+     * Inserts a batch of messages sharing the same headers and retry flag.
+     * Payloads of large batches are serialized in parallel; the inserts are sent as JDBC
+     * batches (see {@code hibernate.jdbc.batch_size}) since ids are assigned client-side.
+     * Ordered drafts of the same aggregate are versioned in list order.
+     */
     @Transactional
-    public void processPendingMessages() {
-        var messages = repository.findPendingMessages(
-            properties.processing().batchSize(), 
-            LocalDateTime.now()
-        );
+    public void createMessages(List<MessageDraft> drafts, Map<String, String> headers, boolean retryable)
+            throws IOException {
+        long started = System.nanoTime();
+        byte[] serializedHeaders = serializer.writeHeaders(headers);
+        List<OutboxSerializer.EncodedPayload> payloads = serializePayloads(drafts);
+        Map<String, AggregateVersionSequence.Reservation> reservations = reserveVersions(drafts);
+        Map<String, Integer> nextVersions = new HashMap<>();
+        
+        List<OutboxEntity> entities = new ArrayList<>(drafts.size());
+        for (int i = 0; i < drafts.size(); i++) {
+            var draft = drafts.get(i);
+            int version = 0;
+            boolean ready = true;
+            if (draft.ordered()) {
+                var reservation = reservations.get(draft.aggregateId());
+                version = nextVersions.merge(draft.aggregateId(), 1, Integer::sum) - 1 + reservation.firstVersion();
+                ready = version == reservation.firstVersion() && reservation.firstReady();
+            }
+            var payload = payloads.get(i);
+            var entity = OutboxEntity.create(draft.topic(), draft.aggregateId(), payload.bytes(),
+                serializer.getContentType(), payload.encoding(), serializedHeaders, version, retryable);
+            if (ready) {
+                entity.markReady();
+            }
+            entities.add(entity);
+        }
         
-        log.debug("Processing {} pending messages", messages.size());
+        String claimToken = claimForHandoff(entities);
+        repository.saveAll(entities);
+        handOffAfterCommit(claimToken, entities);
+        statistics.recordInserted(entities.size());
+        instrumentation.recordInsert(entities.size(), System.nanoTime() - started);
+        log.debug("Created batch of {} outbox messages", entities.size());
+    }
+
+    private List<OutboxSerializer.EncodedPayload> serializePayloads(List<MessageDraft> drafts) throws IOException {
+        if (drafts.size() < PARALLEL_SERIALIZATION_THRESHOLD) {
+            List<OutboxSerializer.EncodedPayload> payloads = new ArrayList<>(drafts.size());
+            for (var draft : drafts) {
+                payloads.add(serializer.writePayload(draft.payload()));
+            }
+            return payloads;
+        }
         
-        for (var message : messages) {
-            processMessage(message);
+        try {
+            return drafts.parallelStream()
+                .map(draft -> {
+                    try {
+                        return serializer.writePayload(draft.payload());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
     }
 
-    @Transactional
-    public void processFailedMessages() {
-        var messages = repository.findFailedMessages(
-            properties.processing().batchSize(), 
-            LocalDateTime.now()
-        );
+    /**
+     * Reserves versions for the ordered drafts of a batch, one counter update per aggregate.
+     * Aggregates are locked in sorted order so concurrent batches cannot deadlock each other.
+     */
+    private Map<String, AggregateVersionSequence.Reservation> reserveVersions(List<MessageDraft> drafts) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (var draft : drafts) {
+            if (draft.ordered()) {
+                counts.merge(draft.aggregateId(), 1, Integer::sum);
+            }
+        }
+        Map<String, AggregateVersionSequence.Reservation> reservations = new HashMap<>(counts.size() * 2);
+        counts.forEach((aggregateId, count) -> reservations.put(aggregateId, versionSequence.reserve(aggregateId, count)));
+        return reservations;
+    }
+
+    /**
+     * Inserts ready messages already claimed by this node when a direct relay is consuming
+     * hand-offs, so pollers skip them while they wait in memory.
+     *
+     * @return the claim token, or {@code null} if the messages are left to the poller
+     */
+    private String claimForHandoff(List<OutboxEntity> entities) {
+        if (!handoffQueue.isOpen() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        var processing = properties.processing();
+        String claimToken = UlidCreator.getUlid().toString();
+        var leaseUntil = LocalDateTime.now().plus(processing.leaseDuration());
+        for (var entity : entities) {
+            if (entity.isReady()) {
+                entity.claim(processing.nodeId(), claimToken, leaseUntil);
+            }
+        }
+        return claimToken;
+    }
+
+    /**
+     * Passes the claimed messages to the direct relay once the inserting transaction commits.
+     * The relay gets detached copies, since the caller's persistence context may still manage
+     * the inserted entities. If the queue has been closed or is full the claim is released
+     * right away, so the poller picks the messages up on its next run instead of after the lease.
+     */
+    private void handOffAfterCommit(String claimToken, List<OutboxEntity> entities) {
+        if (claimToken == null) {
+            return;
+        }
+        List<OutboxEntity> claimed = entities.stream()
+            .filter(entity -> entity.isClaimedWith(claimToken))
+            .toList();
+        if (claimed.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                var copies = claimed.stream().map(OutboxEntity::detachedCopy).toList();
+                if (!handoffQueue.offer(claimToken, copies)) {
+                    log.debug("Hand-off queue unavailable, leaving {} messages to the poller", claimed.size());
+                    releaseClaims(claimToken, claimed);
+                }
+            }
+        });
+    }
+
+    void releaseClaims(String claimToken, List<OutboxEntity> messages) {
+        try {
+            var ids = messages.stream().map(OutboxEntity::getId).toList();
+            releaseTransaction.executeWithoutResult(tx -> repository.releaseClaims(ids, claimToken));
+        } catch (Exception e) {
+            log.warn("Failed to release claim of {} messages; they will be relayed after lease expiry: {}",
+                messages.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Relays one batch of pending messages per lane, one lane after another.
+     * Runs without an outer transaction: the claim and the write-back of outcomes each use
+     * their own short transaction, and no connection is held while publishing.
+     *
+     * @return the number of messages relayed
+     */
+    public int processPendingMessages() {
+        int relayed = 0;
+        for (int lane = 0; lane < properties.processing().lanes(); lane++) {
+            relayed += processPendingMessages(lane);
+        }
+        return relayed;
+    }
+
+    /**
+     * Relays one batch of pending messages of a single lane.
+     * Lanes own disjoint sets of aggregates, so different lanes can be relayed concurrently.
+     *
+     * @return the number of messages claimed; equal to the batch size when more are waiting
+     */
+    public int processPendingMessages(int lane) {
+        return relay(OutboxEntity.Status.PENDING, lane);
+    }
+
+    /**
+     * Relays one batch of failed messages per lane whose retry time has come.
+     *
+     * @return the number of messages relayed
+     */
+    public int processFailedMessages() {
+        int relayed = 0;
+        for (int lane = 0; lane < properties.processing().lanes(); lane++) {
+            relayed += processFailedMessages(lane);
+        }
+        return relayed;
+    }
+
+    /**
+     * Relays one batch of failed messages of a single lane.
+     *
+     * @return the number of messages claimed
+     */
+    public int processFailedMessages(int lane) {
+        return relay(OutboxEntity.Status.FAILED, lane);
+    }
+
+    private int relay(OutboxEntity.Status status, int lane) {
+        var permit = circuitBreaker.acquire();
+        if (permit == PublisherCircuitBreaker.Permit.REJECT) {
+            log.debug("Circuit is open, not claiming in lane {}", lane);
+            return 0;
+        }
+        boolean probe = permit == PublisherCircuitBreaker.Permit.PROBE;
+        int limit = probe ? 1 : properties.processing().batchSize();
+        
+        String claimToken = UlidCreator.getUlid().toString();
+        long started = System.nanoTime();
+        List<OutboxEntity> messages = transactionTemplate.execute(tx -> claimMessages(status, lane, claimToken, limit));
+        instrumentation.recordClaim(status, messages.size(), System.nanoTime() - started);
+        
+        if (status == OutboxEntity.Status.PENDING) {
+            log.debug("Processing {} pending messages in lane {}", messages.size(), lane);
+        } else {
+            log.debug("Retrying {} failed messages in lane {}", messages.size(), lane);
+        }
+        if (messages.isEmpty()) {
+            if (probe) {
+                circuitBreaker.releaseProbe();
+            }
+            return 0;
+        }
+        
+        List<CompletableFuture<Void>> results = publishMessages(messages, probe);
+        
+        acknowledge(messages, Collections.nCopies(messages.size(), claimToken), results);
+        return messages.size();
+    }
+
+    /**
+     * Relays messages handed off after commit. They were claimed when inserted and are
+     * published from memory without being read back.
+     */
+    void relayHandoffs(List<HandoffQueue.Handoff> handoffs) {
+        List<OutboxEntity> messages = new ArrayList<>();
+        List<String> claimTokens = new ArrayList<>();
+        for (var handoff : handoffs) {
+            for (var message : handoff.messages()) {
+                messages.add(message);
+                claimTokens.add(handoff.claimToken());
+            }
+        }
+        log.debug("Relaying {} handed-off messages", messages.size());
+        
+        List<CompletableFuture<Void>> results = publishMessages(messages, false);
         
-        log.debug("Retrying {} failed messages", messages.size());
+        acknowledge(messages, claimTokens, results);
+    }
+
+    /**
+     * Locks a batch of ready messages and stamps them with this node's lease and the
+     * batch claim token. The row locks are released when the claim transaction commits;
+     * from then on the live lease keeps other nodes away from the rows.
+     * In SKIP_LOCKED mode rows held by other nodes are skipped instead of waited on.
+     * Topics whose own circuit is open are not claimed at all.
+     */
+    private List<OutboxEntity> claimMessages(OutboxEntity.Status status, int lane, String claimToken, int limit) {
+        var processing = properties.processing();
+        int lanes = processing.lanes();
+        var now = LocalDateTime.now();
+        boolean skipLocked = processing.claimMode() == OutboxProperties.ClaimMode.SKIP_LOCKED;
+        var rejectedTopics = circuitBreaker.rejectedTopics();
+        
+        List<OutboxEntity> messages;
+        if (status == OutboxEntity.Status.PENDING) {
+            messages = skipLocked
+                ? repository.findPendingMessagesSkipLocked(limit, now, lanes, lane, rejectedTopics)
+                : repository.findPendingMessages(limit, now, lanes, lane, rejectedTopics);
+        } else {
+            messages = skipLocked
+                ? repository.findFailedMessagesSkipLocked(limit, now, lanes, lane, rejectedTopics)
+                : repository.findFailedMessages(limit, now, lanes, lane, rejectedTopics);
+        }
+        
+        if (!messages.isEmpty()) {
+            var ids = messages.stream().map(OutboxEntity::getId).toList();
+            repository.claim(ids, processing.nodeId(), claimToken, now.plus(processing.leaseDuration()));
+        }
+        return messages;
+    }
+
+    /**
+     * Publishes a claimed batch with up to {@code maxInFlight} sends awaiting acknowledgement
+     * at a time and returns one result per message once the whole batch has completed.
+     * The claim queries return at most one ordered version per aggregate, so sends within a
+     * batch never have to be ordered against each other.
+     * Messages the circuit breaker does not admit are not sent, and once the breaker opens
+     * the rest of the batch is held back. Failures of sends issued while their circuit was
+     * already open (probes) are reported as {@link PublisherCircuitBreaker.OpenCircuitException},
+     * so they do not count as attempts; failures that trip the breaker still do.
+     */
+    private List<CompletableFuture<Void>> publishMessages(List<OutboxEntity> messages, boolean probe) {
+        int window = properties.processing().maxInFlight();
+        boolean[] admitted = circuitBreaker.admit(messages, probe);
+        List<CompletableFuture<Void>> results = new ArrayList<>(messages.size());
         
-        for (var message : messages) {
-            processMessage(message);
+        for (int from = 0; from < messages.size(); from += window) {
+            int to = Math.min(from + window, messages.size());
+            if (!probe && circuitBreaker.isPublisherOpen()) {
+                Arrays.fill(admitted, from, to, false);
+            }
+            var chunk = messages.subList(from, to);
+            var openAtDispatch = new BitSet(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                if (admitted[from + i] && circuitBreaker.isOpen(chunk.get(i).getTopic())) {
+                    openAtDispatch.set(i);
+                }
+            }
+            var sent = new BitSet(chunk.size());
+            var futures = new ArrayList<>(sendChunk(chunk, Arrays.copyOfRange(admitted, from, to), sent));
+            awaitAll(futures);
+            for (int i = sent.nextSetBit(0); i >= 0; i = sent.nextSetBit(i + 1)) {
+                Throwable failure = failureOf(futures.get(i));
+                // A permanent failure is about the message, not the broker
+                if (isPermanent(failure)) {
+                    continue;
+                }
+                String topic = chunk.get(i).getTopic();
+                circuitBreaker.record(topic, failure == null);
+                if (failure != null && openAtDispatch.get(i)) {
+                    futures.set(i, CompletableFuture.failedFuture(
+                        new PublisherCircuitBreaker.OpenCircuitException(topic, failure)));
+                }
+            }
+            results.addAll(futures);
         }
+        return results;
     }
 
-    private void processMessage(OutboxEntity message) {
+    /**
+     * Applies the publish outcomes to the claimed messages and hands them to the
+     * acknowledgement writer, returning once they have been committed.
+     */
+    private void acknowledge(List<OutboxEntity> messages, List<String> claimTokens,
+                             List<CompletableFuture<Void>> results) {
+        List<CompletableFuture<Void>> acks = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            var message = messages.get(i);
+            var claimedStatus = message.getInternalStatus();
+            applyOutcome(message, results.get(i));
+            acks.add(acknowledgementWriter.submit(claimTokens.get(i), claimedStatus, message));
+        }
+        
         try {
+            CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            log.warn("Outcomes of {} messages were not recorded and will be relayed again after lease expiry", 
+                messages.size());
+        }
+    }
+
+    /**
+     * Sends the admitted messages of a chunk and marks them in {@code sent}; the others
+     * get a failed result without reaching the publisher.
+     */
+    private List<CompletableFuture<Void>> sendChunk(List<OutboxEntity> chunk, boolean[] admitted, BitSet sent) {
+        List<PublishRequest> requests = new ArrayList<>(chunk.size());
+        Map<Integer, CompletableFuture<Void>> unsent = null;
+        for (int i = 0; i < chunk.size(); i++) {
+            var message = chunk.get(i);
+            if (!admitted[i]) {
+                if (unsent == null) {
+                    unsent = new HashMap<>();
+                }
+                unsent.put(i, CompletableFuture.failedFuture(
+                    new PublisherCircuitBreaker.OpenCircuitException(message.getTopic())));
+                continue;
+            }
             log.debug("Publishing message for aggregate {} version {}", 
                 message.getAggregateId(), message.getVersion());
-            
-            Map<String, String> headers = parseHeaders(message.getHeadersJson());
-            eventPublisher.publish(message.getTopic(), message.getPayload(), headers);
-            
+            try {
+                requests.add(serializer.toRequest(message));
+                sent.set(i);
+            } catch (IOException e) {
+                if (unsent == null) {
+                    unsent = new HashMap<>();
+                }
+                unsent.put(i, CompletableFuture.failedFuture(
+                    new PublishingException("Stored payload cannot be read: " + e.getMessage(), e, false)));
+            }
+        }
+        
+        var dispatched = requests.isEmpty() ? List.<CompletableFuture<Void>>of() : publishDispatcher.dispatch(requests);
+        if (unsent == null) {
+            return dispatched;
+        }
+        // Put the failures back at the positions of their messages
+        List<CompletableFuture<Void>> results = new ArrayList<>(chunk.size());
+        var remaining = dispatched.iterator();
+        for (int i = 0; i < chunk.size(); i++) {
+            results.add(unsent.containsKey(i) ? unsent.get(i) : remaining.next());
+        }
+        return results;
+    }
+
+    private void awaitAll(List<CompletableFuture<Void>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .get(properties.publisher().timeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Outcomes are inspected per message; unfinished sends count as failures
+        }
+    }
+
+    private void applyOutcome(OutboxEntity message, CompletableFuture<Void> result) {
+        Throwable failure = failureOf(result);
+        
+        if (failure == null) {
             message.markAsPublished();
+            instrumentation.recordPublished(message.getTopic(), 
+                Duration.between(message.getCreatedAt(), message.getPublishedAt()));
             log.debug("Successfully published message for aggregate {} version {}", 
                 message.getAggregateId(), message.getVersion());
-
-        } catch (PublishingException e) {
+            return;
+        }
+        
+        boolean permanent = isPermanent(failure);
+        // Held back or probing during an outage says nothing about the message, so no attempt is counted
+        if (failure instanceof PublisherCircuitBreaker.OpenCircuitException) {
+            log.debug("Deferring message for aggregate {} version {}: {}", 
+                message.getAggregateId(), message.getVersion(), failure.getMessage());
+            message.defer(failure.getMessage(), circuitBreaker.resumeAt(message.getTopic()));
+            instrumentation.recordDeferred(message.getTopic());
+            return;
+        }
+        
+        if (permanent) {
+            log.error("Publishing failed permanently for aggregate {} version {}: {}", 
+                message.getAggregateId(), message.getVersion(), failure.getMessage());
+        } else if (failure instanceof PublishingException) {
             log.error("Publishing failed for aggregate {} version {}: {}", 
-                message.getAggregateId(), message.getVersion(), e.getMessage());
-            message.recordFailure(e.getMessage(), properties.retry().maxRetries(), 
-                                properties.retry().initialDelay());
-        } catch (Exception e) {
+                message.getAggregateId(), message.getVersion(), failure.getMessage());
+        } else {
             log.error("Unexpected error publishing message for aggregate {} version {}: {}", 
-                message.getAggregateId(), message.getVersion(), e.getMessage(), e);
-            message.recordFailure(e.getMessage(), properties.retry().maxRetries(), 
-                                properties.retry().initialDelay());
+                message.getAggregateId(), message.getVersion(), failure.getMessage(), failure);
+        }
+        Duration retryDelay = message.isRetryable()
+            ? retryPolicy.nextDelay(message, message.getRetryCount() + 1, message.getLastRetryDelay(), failure)
+            : null;
+        message.recordFailure(failure.getMessage(), retryDelay);
+        
+        if (message.getInternalStatus() == OutboxEntity.Status.DEAD_LETTER) {
+            instrumentation.recordDeadLetter(message.getTopic());
+        } else {
+            instrumentation.recordRetry(message.getTopic());
         }
     }
 
-    @Transactional(readOnly = true)
-    public OutboxMetrics getMetrics() {
-        return new OutboxMetrics(
-            repository.countPendingMessages(),
-            repository.countFailedMessages(),
-            repository.countByStatus(OutboxEntity.Status.PUBLISHED),
-            repository.countByStatus(OutboxEntity.Status.DEAD_LETTER)
-        );
+    private static boolean isPermanent(Throwable failure) {
+        return failure instanceof PublishingException e && !e.isRetryable();
     }
 
-    private Map<String, String> parseHeaders(String headersJson) {
-        if (headersJson == null || headersJson.isEmpty()) {
-            return Map.of();
+    private static Throwable failureOf(CompletableFuture<Void> result) {
+        if (!result.isDone()) {
+            return new PublishingException("Publish was not acknowledged within the publisher timeout");
         }
-
         try {
-            @SuppressWarnings("unchecked")
-            Map<String, String> result = objectMapper.readValue(headersJson, Map.class);
-            return result;
-        } catch (Exception e) {
-            log.warn("Failed to parse headers JSON: {}", headersJson, e);
-            return Map.of();
+            result.join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause() != null ? e.getCause() : e;
+        } catch (CancellationException e) {
+            return e;
         }
     }
 
+    /**
+     * Current counts per status, served from the maintained counters when monitoring is
+     * enabled and counted from the table otherwise.
+     */
+    public OutboxMetrics getMetrics() {
+        if (statistics.isEnabled()) {
+            return statistics.snapshot();
+        }
+        return readOnlyTransaction.execute(tx -> new OutboxMetrics(
+            repository.countPendingMessages(),
+            repository.countFailedMessages(),
+            repository.countByStatus(OutboxEntity.Status.PUBLISHED),
+            repository.countByStatus(OutboxEntity.Status.DEAD_LETTER)
+        ));
+    }
 
+    /**
+     * A message to be inserted as part of a batch.
+     */
+    public record MessageDraft(String topic, String aggregateId, Object payload, boolean ordered) {}
 }
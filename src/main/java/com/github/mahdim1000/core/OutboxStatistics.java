@@ -0,0 +1,258 @@
+package com.github.mahdim1000.core;
+
+import com.github.mahdim1000.api.OutboxMetrics;
+import com.github.mahdim1000.config.OutboxProperties;
+import com.github.mahdim1000.domain.OutboxEntity;
+import com.github.mahdim1000.domain.OutboxRepository;
+import com.github.mahdim1000.domain.StatusCount;
+import com.github.mahdim1000.domain.StatusCountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Row counts per status, served from memory instead of {@code COUNT(*)} scans.
+ *
+ * Every committed change is recorded as a delta: inserts after their transaction
+ * commits, publish outcomes after the acknowledgement writer commits them, deletes after
+ * each purge chunk. Deltas are added to the shared {@code outbox_stats} table every
+ * {@code metrics-interval}, after which the counts of all nodes are read back. Every
+ * {@code reconcile-interval} the table is overwritten with an exact count, which corrects
+ * drift from rows changed outside the library or from deltas lost in a crash.
+ *
+ * A transaction sees its own uncommitted inserts, like a {@code COUNT(*)} inside it would.
+ */
+@Component
+public class OutboxStatistics implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxStatistics.class);
+
+    private final OutboxRepository outboxRepository;
+    private final StatusCountRepository countRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    // Counts of the shared table as of the last flush, plus deltas being flushed
+    private final Map<OutboxEntity.Status, AtomicLong> base = new EnumMap<>(OutboxEntity.Status.class);
+    // Committed deltas of this node not yet added to the table
+    private final Map<OutboxEntity.Status, LongAdder> unflushed = new EnumMap<>(OutboxEntity.Status.class);
+    // Serializes flushes and reconciles
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public OutboxStatistics(OutboxRepository outboxRepository,
+                            StatusCountRepository countRepository,
+                            PlatformTransactionManager transactionManager,
+                            OutboxProperties properties) {
+        this.outboxRepository = outboxRepository;
+        this.countRepository = countRepository;
+        // Deltas may be flushed from afterCommit callbacks, which must not join the finished transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = properties.monitoring().enabled();
+        for (var status : OutboxEntity.Status.values()) {
+            base.put(status, new AtomicLong());
+            unflushed.put(status, new LongAdder());
+        }
+    }
+
+    /**
+     * Whether counts are maintained; when disabled, metrics fall back to counting rows.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Loads the shared counts, or counts the outbox if this is the first node to start.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        if (countRepository.count() < OutboxEntity.Status.values().length) {
+            reconcile();
+        } else {
+            reload();
+        }
+    }
+
+    /**
+     * Records inserted messages. Inside a transaction they count for that transaction right
+     * away and for everyone else once it commits.
+     */
+    public void recordInserted(int count) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(OutboxEntity.Status.PENDING, count);
+            return;
+        }
+        var pending = (PendingInserts) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingInserts();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.count += count;
+    }
+
+    /**
+     * Records committed status changes of {@code count} messages.
+     */
+    public void recordTransition(OutboxEntity.Status from, OutboxEntity.Status to, long count) {
+        if (from != to) {
+            record(from, -count);
+            record(to, count);
+        }
+    }
+
+    /**
+     * Records committed deletes.
+     */
+    public void recordDeleted(OutboxEntity.Status status, long count) {
+        record(status, -count);
+    }
+
+    /**
+     * Current counts, without touching the database.
+     */
+    public OutboxMetrics snapshot() {
+        var pending = (PendingInserts) TransactionSynchronizationManager.getResource(this);
+        long uncommitted = pending == null ? 0 : pending.count;
+        return new OutboxMetrics(
+            current(OutboxEntity.Status.PENDING) + uncommitted,
+            current(OutboxEntity.Status.FAILED),
+            current(OutboxEntity.Status.PUBLISHED),
+            current(OutboxEntity.Status.DEAD_LETTER)
+        );
+    }
+
+    /**
+     * Adds this node's deltas to the shared table and picks up those of other nodes.
+     */
+    @Scheduled(fixedDelayString = "${outbox.monitoring.metrics-interval:PT1M}",
+               initialDelayString = "${outbox.monitoring.metrics-interval:PT1M}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            flushDeltas();
+            reload();
+        } catch (Exception e) {
+            log.warn("Failed to flush outbox statistics: {}", e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the shared counts with an exact count of the outbox.
+     * Deltas other nodes flush while this runs may be counted twice until the next reconcile.
+     */
+    @Scheduled(fixedDelayString = "${outbox.monitoring.reconcile-interval:PT1H}",
+               initialDelayString = "${outbox.monitoring.reconcile-interval:PT1H}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            flushDeltas();
+            transactionTemplate.executeWithoutResult(tx -> {
+                Map<OutboxEntity.Status, Long> exact = new EnumMap<>(OutboxEntity.Status.class);
+                outboxRepository.countGroupedByStatus()
+                    .forEach(counter -> exact.put(counter.getStatus(), counter.getEventCount()));
+                for (var status : OutboxEntity.Status.values()) {
+                    long count = exact.getOrDefault(status, 0L);
+                    if (countRepository.set(status, count) == 0) {
+                        countRepository.saveAndFlush(StatusCount.create(status, count));
+                    }
+                }
+            });
+            reload();
+            log.debug("Reconciled outbox statistics: {}", snapshot());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Outbox statistics were initialized concurrently by another node");
+            reload();
+        } catch (Exception e) {
+            log.warn("Failed to reconcile outbox statistics: {}", e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void record(OutboxEntity.Status status, long delta) {
+        if (enabled && delta != 0) {
+            unflushed.get(status).add(delta);
+        }
+    }
+
+    private long current(OutboxEntity.Status status) {
+        return base.get(status).get() + unflushed.get(status).sum();
+    }
+
+    private void flushDeltas() {
+        Map<OutboxEntity.Status, Long> deltas = new EnumMap<>(OutboxEntity.Status.class);
+        for (var status : OutboxEntity.Status.values()) {
+            long delta = unflushed.get(status).sumThenReset();
+            if (delta != 0) {
+                base.get(status).addAndGet(delta);
+                deltas.put(status, delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(tx -> deltas.forEach(countRepository::add));
+        } catch (RuntimeException e) {
+            // Keep the deltas for the next attempt
+            deltas.forEach((status, delta) -> {
+                base.get(status).addAndGet(-delta);
+                unflushed.get(status).add(delta);
+            });
+            throw e;
+        }
+    }
+
+    private void reload() {
+        countRepository.findCounters()
+            .forEach(counter -> base.get(counter.getStatus()).set(counter.getEventCount()));
+    }
+
+    /**
+     * Inserts of one transaction, applied once it commits.
+     */
+    private class PendingInserts implements TransactionSynchronization {
+
+        private long count;
+
+        @Override
+        public void afterCommit() {
+            record(OutboxEntity.Status.PENDING, count);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(OutboxStatistics.this);
+        }
+    }
+}
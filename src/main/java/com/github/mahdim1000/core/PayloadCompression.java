@@ -0,0 +1,71 @@
+package com.github.mahdim1000.core;
+
+import com.github.mahdim1000.api.PayloadCompressor;
+import com.github.mahdim1000.config.OutboxProperties;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies the configured compression to stored payloads and undoes it for topics that
+ * receive them decompressed.
+ */
+final class PayloadCompression {
+
+    private final OutboxProperties.Compression config;
+    private final Map<String, PayloadCompressor> compressors = new HashMap<>();
+    private final PayloadCompressor compressor;
+
+    /**
+     * @param custom compressors registered by the application, which may replace the JDK ones
+     * @throws IllegalStateException if compression is enabled with an unknown algorithm
+     */
+    PayloadCompression(OutboxProperties.Compression config, List<PayloadCompressor> custom) {
+        this.config = config;
+        for (var jdk : JdkPayloadCompressor.values()) {
+            compressors.put(jdk.getEncoding(), jdk);
+        }
+        custom.forEach(c -> compressors.put(c.getEncoding(), c));
+
+        if (!config.enabled()) {
+            this.compressor = null;
+        } else if (compressors.containsKey(config.algorithm())) {
+            this.compressor = compressors.get(config.algorithm());
+        } else {
+            throw new IllegalStateException("Unknown outbox.payload.compression.algorithm '"
+                + config.algorithm() + "'; available: " + compressors.keySet());
+        }
+    }
+
+    /**
+     * Compresses a payload above the threshold.
+     *
+     * @return the compressed payload, or {@code null} if it is stored as is
+     */
+    OutboxSerializer.EncodedPayload compress(byte[] payload) throws IOException {
+        if (compressor == null || payload.length < config.threshold().toBytes()) {
+            return null;
+        }
+        byte[] compressed = compressor.compress(payload);
+        return compressed.length < payload.length
+            ? new OutboxSerializer.EncodedPayload(compressed, compressor.getEncoding())
+            : null;
+    }
+
+    /**
+     * Whether payloads stored with {@code encoding} reach {@code topic} compressed.
+     */
+    boolean forwards(String topic, String encoding) {
+        return encoding != null && config.deliveryFor(topic) == OutboxProperties.Delivery.FORWARD;
+    }
+
+    byte[] decompress(byte[] payload, String encoding) throws IOException {
+        var decompressor = compressors.get(encoding);
+        if (decompressor == null) {
+            throw new IOException("No payload compressor registered for encoding '" + encoding + "'");
+        }
+        return decompressor.decompress(payload);
+    }
+}
@@ -0,0 +1,167 @@
+package com.github.mahdim1000.core;
+
+import com.github.mahdim1000.api.EventPublisher;
+import com.github.mahdim1000.api.PublishRequest;
+import com.github.mahdim1000.api.PublishingException;
+import com.github.mahdim1000.config.OutboxProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands relayed messages to the {@link EventPublisher}.
+ *
+ * With the platform executor a chunk goes to {@link EventPublisher#publishBatch} and
+ * concurrency is left to the publisher. With the virtual executor every send runs on its
+ * own virtual thread, so publishers that block on broker I/O still keep many sends
+ * outstanding; a semaphore caps the sends in flight across all lanes. Publishers that
+ * {@linkplain EventPublisher#batchesNatively() batch natively} keep getting whole batches,
+ * at most the concurrency limit at a time, so e.g. RabbitMQ still confirms once per batch.
+ */
+@Component
+public class PublishDispatcher implements DisposableBean {
+
+    private final EventPublisher eventPublisher;
+    private final ExecutorService virtualThreads;
+    private final Semaphore sendPermits;
+    private final int maxConcurrency;
+    private final OutboxInstrumentation instrumentation;
+
+    public PublishDispatcher(EventPublisher eventPublisher, OutboxProperties properties,
+                             ObjectProvider<OutboxInstrumentation> instrumentation) {
+        this.eventPublisher = eventPublisher;
+        this.instrumentation = instrumentation.getIfAvailable(() -> OutboxInstrumentation.NOOP);
+        var processing = properties.processing();
+        this.maxConcurrency = processing.maxConcurrency();
+        if (processing.executor() == OutboxProperties.ExecutorType.VIRTUAL) {
+            this.virtualThreads = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("outbox-send-", 0).factory());
+            this.sendPermits = new Semaphore(processing.maxConcurrency());
+        } else {
+            this.virtualThreads = null;
+            this.sendPermits = null;
+        }
+    }
+
+    /**
+     * Starts sending the given messages.
+     *
+     * @return one future per request, in request order
+     */
+    public List<CompletableFuture<Void>> dispatch(List<PublishRequest> requests) {
+        long started = System.nanoTime();
+        List<CompletableFuture<Void>> results;
+        if (virtualThreads == null) {
+            results = publishBatch(requests);
+        } else if (eventPublisher.batchesNatively()) {
+            results = publishBatchesWithinLimit(requests);
+        } else {
+            results = new ArrayList<>(requests.size());
+            for (var request : requests) {
+                results.add(sendOnVirtualThread(request));
+            }
+        }
+
+        String publisherType = eventPublisher.getType();
+        for (int i = 0; i < results.size(); i++) {
+            String topic = requests.get(i).topic();
+            results.get(i).whenComplete((ignored, failure) -> instrumentation.recordSend(
+                topic, publisherType, failure == null, System.nanoTime() - started));
+        }
+        return results;
+    }
+
+    private List<CompletableFuture<Void>> publishBatch(List<PublishRequest> requests) {
+        try {
+            return eventPublisher.publishBatch(requests);
+        } catch (RuntimeException e) {
+            return requests.stream()
+                .map(request -> CompletableFuture.<Void>failedFuture(e))
+                .toList();
+        }
+    }
+
+    /**
+     * Publishes the requests as batches of at most {@code maxConcurrency}, each taking one
+     * permit per message that is returned once the broker has answered for it. The lane
+     * already runs on a virtual thread, so a publisher blocking on confirms blocks only it.
+     */
+    private List<CompletableFuture<Void>> publishBatchesWithinLimit(List<PublishRequest> requests) {
+        List<CompletableFuture<Void>> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += maxConcurrency) {
+            var slice = requests.subList(from, Math.min(from + maxConcurrency, requests.size()));
+            try {
+                sendPermits.acquire(slice.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (int i = from; i < requests.size(); i++) {
+                    results.add(CompletableFuture.failedFuture(e));
+                }
+                return results;
+            }
+            for (var result : publishBatch(slice)) {
+                result.whenComplete((ignored, failure) -> sendPermits.release());
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Waits for a permit on the calling thread, so a lane stops spawning sends while the
+     * concurrency limit is reached. The permit is returned once the broker has answered.
+     */
+    private CompletableFuture<Void> sendOnVirtualThread(PublishRequest request) {
+        try {
+            sendPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        var result = new CompletableFuture<Void>();
+        try {
+            virtualThreads.execute(() -> {
+                try {
+                    eventPublisher.publishAsync(request).join();
+                    result.complete(null);
+                } catch (CompletionException e) {
+                    result.completeExceptionally(e.getCause() != null ? e.getCause() : e);
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(new PublishingException(e.getMessage(), e));
+                } finally {
+                    sendPermits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            sendPermits.release();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        if (virtualThreads == null) {
+            return;
+        }
+        virtualThreads.shutdown();
+        try {
+            if (!virtualThreads.awaitTermination(30, TimeUnit.SECONDS)) {
+                virtualThreads.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            virtualThreads.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.github.mahdim1000.core;
+
+import com.github.mahdim1000.api.EventPublisher;
+import com.github.mahdim1000.api.PublishingException;
+import com.github.mahdim1000.config.OutboxProperties;
+import com.github.mahdim1000.domain.OutboxEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stops relaying while the broker is unreachable.
+ *
+ * A breaker over all sends of the {@link EventPublisher} opens after {@code failureThreshold}
+ * consecutive failures; while it is open nothing is claimed. Once {@code openDuration} has
+ * passed a single message is claimed as a probe: if it is published the breaker closes,
+ * otherwise it stays open for another {@code openDuration}. With {@code perTopic} each topic
+ * additionally gets its own breaker; messages of an open topic are left unclaimed until its
+ * probe is due, and those claimed just before it opened are put back unsent.
+ *
+ * Messages held back or probing while a breaker is open are deferred without counting an
+ * attempt, so an outage does not push healthy events towards the dead letter state. The
+ * failures that open a breaker were sent while it was closed and do count, so messages that
+ * fail on their own still reach the dead letter state.
+ */
+@Component
+public class PublisherCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(PublisherCircuitBreaker.class);
+
+    private final OutboxProperties.CircuitBreaker config;
+    private final Breaker publisher;
+    private final Map<String, Breaker> topics = new ConcurrentHashMap<>();
+
+    public PublisherCircuitBreaker(EventPublisher eventPublisher, OutboxProperties properties) {
+        this.config = properties.publisher().circuitBreaker();
+        this.publisher = new Breaker("publisher '" + eventPublisher.getType() + "'");
+    }
+
+    /**
+     * Asks whether a relay may claim now: a full batch while closed, a single message once
+     * a probe is due, nothing while open. A granted probe must be resolved by {@link #record}
+     * or handed back with {@link #releaseProbe}.
+     */
+    public Permit acquire() {
+        return config.enabled() ? publisher.acquire() : Permit.SEND;
+    }
+
+    /**
+     * Hands back a probe that found nothing to send.
+     */
+    public void releaseProbe() {
+        publisher.releaseProbe();
+    }
+
+    /**
+     * Decides which messages of a batch are sent. While the publisher breaker is open only
+     * the probe batch gets through; with {@code perTopic}, an open topic sends nothing and a
+     * topic due for a probe sends its first message only.
+     *
+     * @param probe whether the batch was claimed with {@link Permit#PROBE}
+     * @return one flag per message, {@code true} if it may be sent
+     */
+    boolean[] admit(List<OutboxEntity> messages, boolean probe) {
+        boolean[] admitted = new boolean[messages.size()];
+        if (!config.enabled()) {
+            Arrays.fill(admitted, true);
+            return admitted;
+        }
+        if (!probe && publisher.isOpen()) {
+            return admitted;
+        }
+        if (!config.perTopic()) {
+            Arrays.fill(admitted, true);
+            return admitted;
+        }
+
+        Map<String, Permit> permits = new HashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            String topic = messages.get(i).getTopic();
+            var permit = permits.get(topic);
+            if (permit == null) {
+                permit = topicBreaker(topic).acquire();
+                admitted[i] = permit != Permit.REJECT;
+                // A topic probe is a single message; the rest of the topic waits
+                permits.put(topic, permit == Permit.SEND ? Permit.SEND : Permit.REJECT);
+            } else {
+                admitted[i] = permit == Permit.SEND;
+            }
+        }
+        if (probe && !admitted[0]) {
+            publisher.releaseProbe();
+        }
+        return admitted;
+    }
+
+    /**
+     * Topics whose own breaker turns all their messages away right now, so that claims can
+     * leave them in the table instead of claiming and deferring them on every poll.
+     * Always empty unless {@code perTopic}.
+     */
+    public Set<String> rejectedTopics() {
+        if (!config.enabled() || !config.perTopic()) {
+            return Set.of();
+        }
+        Set<String> rejected = new HashSet<>();
+        topics.forEach((topic, breaker) -> {
+            if (breaker.isRejecting()) {
+                rejected.add(topic);
+            }
+        });
+        return rejected;
+    }
+
+    /**
+     * Whether the publisher-wide breaker is open, in which case the rest of a batch is not sent.
+     */
+    boolean isPublisherOpen() {
+        return config.enabled() && publisher.isOpen();
+    }
+
+    /**
+     * Records the outcome of a message that was actually sent.
+     */
+    public void record(String topic, boolean success) {
+        if (!config.enabled()) {
+            return;
+        }
+        publisher.record(success);
+        if (config.perTopic()) {
+            topicBreaker(topic).record(success);
+        }
+    }
+
+    /**
+     * Whether sends to {@code topic} are currently considered to fail because of an outage.
+     */
+    public boolean isOpen(String topic) {
+        if (!config.enabled()) {
+            return false;
+        }
+        return publisher.isOpen() || (config.perTopic() && topicBreaker(topic).isOpen());
+    }
+
+    /**
+     * When a message of {@code topic} put back during an outage should be relayed again.
+     */
+    LocalDateTime resumeAt(String topic) {
+        long remaining = publisher.remainingNanos();
+        if (config.perTopic()) {
+            remaining = Math.max(remaining, topicBreaker(topic).remainingNanos());
+        }
+        return LocalDateTime.now().plusNanos(remaining);
+    }
+
+    private Breaker topicBreaker(String topic) {
+        return topics.computeIfAbsent(topic, t -> new Breaker("topic '" + t + "'"));
+    }
+
+    /**
+     * What a relay may claim.
+     */
+    public enum Permit {
+        /** Closed: claim a full batch. */
+        SEND,
+        /** Half-open: claim a single message to test the broker. */
+        PROBE,
+        /** Open: claim nothing. */
+        REJECT
+    }
+
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * Consecutive-failure breaker. Calls are short and rare compared to a send, so a
+     * monitor is enough.
+     */
+    private final class Breaker {
+
+        private final String name;
+        private State state = State.CLOSED;
+        private int failures;
+        private long openUntil;
+        private boolean probing;
+        private long probeStarted;
+
+        Breaker(String name) {
+            this.name = name;
+        }
+
+        synchronized Permit acquire() {
+            switch (state) {
+                case CLOSED:
+                    return Permit.SEND;
+                case OPEN:
+                    if (System.nanoTime() - openUntil < 0) {
+                        return Permit.REJECT;
+                    }
+                    state = State.HALF_OPEN;
+                    // fall through
+                default:
+                    // A probe that never reported back (e.g. its message was unreadable) expires
+                    if (probing && System.nanoTime() - probeStarted < config.openDuration().toNanos()) {
+                        return Permit.REJECT;
+                    }
+                    probing = true;
+                    probeStarted = System.nanoTime();
+                    return Permit.PROBE;
+            }
+        }
+
+        synchronized void releaseProbe() {
+            probing = false;
+        }
+
+        synchronized void record(boolean success) {
+            if (success) {
+                failures = 0;
+                probing = false;
+                if (state != State.CLOSED) {
+                    state = State.CLOSED;
+                    log.info("Circuit for {} closed, relaying resumes", name);
+                }
+            } else if (state == State.HALF_OPEN) {
+                open("the probe failed");
+            } else if (state == State.CLOSED && ++failures >= config.failureThreshold()) {
+                open(failures + " consecutive failures");
+            }
+        }
+
+        private void open(String reason) {
+            state = State.OPEN;
+            probing = false;
+            failures = 0;
+            openUntil = System.nanoTime() + config.openDuration().toNanos();
+            log.warn("Circuit for {} opened after {}; probing again in {}", name, reason, config.openDuration());
+        }
+
+        synchronized boolean isOpen() {
+            return state != State.CLOSED;
+        }
+
+        /** Open with no probe due, i.e. {@link #acquire} would reject. */
+        synchronized boolean isRejecting() {
+            return switch (state) {
+                case CLOSED -> false;
+                case OPEN -> System.nanoTime() - openUntil < 0;
+                case HALF_OPEN -> probing && System.nanoTime() - probeStarted < config.openDuration().toNanos();
+            };
+        }
+
+        synchronized long remainingNanos() {
+            return state == State.CLOSED ? 0 : Math.max(0, openUntil - System.nanoTime());
+        }
+    }
+
+    /**
+     * A message that was not sent because its circuit is open, or that failed as a probe
+     * while it was open.
+     */
+    static final class OpenCircuitException extends PublishingException {
+
+        OpenCircuitException(String topic) {
+            super("Not sent: circuit for topic '" + topic + "' is open");
+        }
+
+        OpenCircuitException(String topic, Throwable cause) {
+            super("Failed while circuit for topic '" + topic + "' was open: " + cause.getMessage(), cause);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.mahdim1000.core;
+
+import com.github.mahdim1000.api.EventPublisher;
+import com.github.mahdim1000.config.OutboxProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Probes the {@link EventPublisher} in the background and caches the result.
+ *
+ * Probes run on a dedicated thread every {@code outbox.monitoring.health-interval}, so a
+ * slow or hanging broker check never blocks callers; reading the health is a volatile read.
+ * Until the first probe has finished the publisher counts as healthy.
+ */
+@Component
+public class PublisherHealthProbe implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PublisherHealthProbe.class);
+
+    private final EventPublisher eventPublisher;
+    private final Duration interval;
+    private final OutboxInstrumentation instrumentation;
+
+    private volatile Health health = new Health(true, null, Duration.ZERO, null);
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+
+    public PublisherHealthProbe(EventPublisher eventPublisher, OutboxProperties properties,
+                                ObjectProvider<OutboxInstrumentation> instrumentation) {
+        this.eventPublisher = eventPublisher;
+        this.interval = properties.monitoring().healthInterval();
+        this.instrumentation = instrumentation.getIfAvailable(() -> OutboxInstrumentation.NOOP);
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("outbox-health-probe").daemon().factory());
+        running = true;
+        scheduler.scheduleWithFixedDelay(this::probe, 0, interval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Whether the publisher was healthy at the last probe.
+     */
+    public boolean isHealthy() {
+        return health.healthy();
+    }
+
+    /**
+     * The result of the last probe.
+     */
+    public Health getHealth() {
+        return health;
+    }
+
+    /**
+     * Checks the publisher now and caches the result.
+     */
+    public Health probe() {
+        long started = System.nanoTime();
+        boolean healthy;
+        String error = null;
+        try {
+            healthy = eventPublisher.isHealthy();
+        } catch (Exception e) {
+            healthy = false;
+            error = e.getMessage();
+        }
+        long nanos = System.nanoTime() - started;
+        instrumentation.recordHealthProbe(eventPublisher.getType(), healthy, nanos);
+
+        var previous = health;
+        health = new Health(healthy, Instant.now(), Duration.ofNanos(nanos), error);
+        if (previous.healthy() != healthy) {
+            if (healthy) {
+                log.info("Publisher '{}' is healthy again", eventPublisher.getType());
+            } else {
+                log.warn("Publisher '{}' is unhealthy{}", eventPublisher.getType(),
+                    error != null ? ": " + error : "");
+            }
+        }
+        return health;
+    }
+
+    /**
+     * Outcome of a probe.
+     *
+     * @param checkedAt when the probe finished, {@code null} before the first probe
+     * @param latency how long the publisher took to answer
+     * @param error why the probe failed, if it threw
+     */
+    public record Health(boolean healthy, Instant checkedAt, Duration latency, String error) {}
+}
@@ -0,0 +1,143 @@
+package com.github.mahdim1000.core;
+
+import com.github.f4b6a3.ulid.Ulid;
+import com.github.mahdim1000.config.OutboxProperties;
+import com.github.mahdim1000.domain.OutboxEntity;
+import com.github.mahdim1000.domain.OutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes published rows and dead letters once they outlive their retention.
+ *
+ * Expired rows are deleted in small chunks, walking the primary key upwards. Each chunk
+ * is its own short transaction followed by a pause, so a purge never holds many locks at
+ * once or floods replicas with one large delete. Only active with
+ * {@code outbox.retention.enabled=true}, and only for statuses that have a ttl.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.retention.enabled", havingValue = "true")
+public class RetentionPurger {
+
+    private static final Logger log = LoggerFactory.getLogger(RetentionPurger.class);
+
+    private final OutboxRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties.Retention config;
+    private final OutboxStatistics statistics;
+    private final AtomicLong purgedPublished = new AtomicLong();
+    private final AtomicLong purgedDeadLetters = new AtomicLong();
+
+    public RetentionPurger(OutboxRepository repository,
+                           PlatformTransactionManager transactionManager,
+                           OutboxProperties properties,
+                           OutboxStatistics statistics) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.config = properties.retention();
+        this.statistics = statistics;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.retention.interval:PT1H}")
+    public void scheduledPurge() {
+        try {
+            purge();
+        } catch (Exception e) {
+            log.error("Error during outbox retention purge: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Purges everything that is currently expired.
+     *
+     * @return one report per purged status
+     */
+    public List<PurgeReport> purge() {
+        List<PurgeReport> reports = new ArrayList<>(2);
+        if (config.publishedTtl() != null) {
+            reports.add(purge(OutboxEntity.Status.PUBLISHED, config.publishedTtl()));
+        }
+        if (config.deadLetterTtl() != null) {
+            reports.add(purge(OutboxEntity.Status.DEAD_LETTER, config.deadLetterTtl()));
+        }
+        return reports;
+    }
+
+    /** Total published rows deleted since startup. */
+    public long getPurgedPublished() { return purgedPublished.get(); }
+
+    /** Total dead letters deleted since startup. */
+    public long getPurgedDeadLetters() { return purgedDeadLetters.get(); }
+
+    private PurgeReport purge(OutboxEntity.Status status, Duration ttl) {
+        Instant cutoffInstant = Instant.now().minus(ttl);
+        LocalDateTime cutoff = LocalDateTime.ofInstant(cutoffInstant, ZoneId.systemDefault());
+        String beforeId = Ulid.min(cutoffInstant.toEpochMilli() + 1).toString();
+        AtomicLong total = status == OutboxEntity.Status.PUBLISHED ? purgedPublished : purgedDeadLetters;
+
+        long started = System.nanoTime();
+        long purged = 0;
+        String afterId = "";
+        while (true) {
+            List<String> ids = status == OutboxEntity.Status.PUBLISHED
+                ? repository.findPublishedIdsBefore(cutoff, afterId, beforeId, config.chunkSize())
+                : repository.findDeadLetterIdsBefore(cutoff, afterId, beforeId, config.chunkSize());
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer deleted = transactionTemplate.execute(tx -> repository.deleteByIdsAndStatus(ids, status));
+            statistics.recordDeleted(status, deleted);
+            purged += deleted;
+            total.addAndGet(deleted);
+            afterId = ids.get(ids.size() - 1);
+
+            if (ids.size() < config.chunkSize() || !pause()) {
+                break;
+            }
+        }
+
+        var report = new PurgeReport(status, purged, Duration.ofNanos(System.nanoTime() - started));
+        if (purged > 0) {
+            log.info("Purged {} {} outbox rows older than {} in {} ms ({} rows/s)", purged, status, ttl,
+                report.duration().toMillis(), Math.round(report.rowsPerSecond()));
+        }
+        return report;
+    }
+
+    private boolean pause() {
+        if (config.chunkPause().isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(config.chunkPause());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Outcome of purging one status.
+     */
+    public record PurgeReport(OutboxEntity.Status status, long purged, Duration duration) {
+
+        public double rowsPerSecond() {
+            long nanos = duration.toNanos();
+            return nanos == 0 ? 0 : purged * 1_000_000_000.0 / nanos;
+        }
+    }
+}
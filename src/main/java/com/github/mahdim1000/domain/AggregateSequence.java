@@ -0,0 +1,30 @@
+package com.github.mahdim1000.domain;
+
+import jakarta.persistence.*;
+
+/**
+ * JPA entity holding the last version handed out for an aggregate's ordered events and
+ * the head version, i.e. the last one that has been published.
+ * This is an internal domain entity and should not be exposed to library users.
+ * Rows are only written through {@link AggregateSequenceRepository}'s queries.
+ */
+@Table(name = "outbox_aggregate_sequence")
+@Entity
+public class AggregateSequence {
+    
+    @Id
+    private String aggregateId;
+    
+    @Column(nullable = false)
+    private int lastVersion;
+    
+    @Column(nullable = false)
+    private int headVersion;
+
+    // JPA requires default constructor
+    protected AggregateSequence() {}
+
+    public String getAggregateId() { return aggregateId; }
+    public int getLastVersion() { return lastVersion; }
+    public int getHeadVersion() { return headVersion; }
+}
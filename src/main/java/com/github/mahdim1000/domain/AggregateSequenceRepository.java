@@ -0,0 +1,60 @@
+package com.github.mahdim1000.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+/**
+ * Repository for per-aggregate version counters.
+ * This is an internal repository and should not be exposed to library users.
+ */
+public interface AggregateSequenceRepository extends JpaRepository<AggregateSequence, String> {
+
+    /**
+     * Advances the counter, taking the row lock until the calling transaction ends.
+     * 
+     * @return number of rows updated (0 if the aggregate has no counter yet)
+     */
+    @Modifying
+    @Query("""
+        UPDATE AggregateSequence s
+        SET s.lastVersion = s.lastVersion + :count
+        WHERE s.aggregateId = :aggregateId
+    """)
+    int increment(@Param("aggregateId") String aggregateId, @Param("count") int count);
+
+    /**
+     * Creates the counter unless it already exists, inside the calling transaction.
+     * A concurrent creator of the same aggregate waits on the key instead of failing.
+     */
+    @Modifying
+    @Query("""
+        INSERT INTO AggregateSequence (aggregateId, lastVersion, headVersion)
+        VALUES (:aggregateId, :lastVersion, :headVersion)
+        ON CONFLICT (aggregateId) DO NOTHING
+    """)
+    int insertIfAbsent(@Param("aggregateId") String aggregateId,
+                       @Param("lastVersion") int lastVersion,
+                       @Param("headVersion") int headVersion);
+
+    /**
+     * Reads the counter as a projection so a stale managed entity can never be returned.
+     */
+    @Query("""
+        SELECT s.lastVersion AS lastVersion, s.headVersion AS headVersion
+        FROM AggregateSequence s
+        WHERE s.aggregateId = :aggregateId
+    """)
+    Optional<Position> findPosition(@Param("aggregateId") String aggregateId);
+
+    /**
+     * Current counter values of an aggregate.
+     */
+    interface Position {
+        int getLastVersion();
+        int getHeadVersion();
+    }
+}
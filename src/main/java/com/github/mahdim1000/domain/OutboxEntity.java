@@ -1,21 +1,29 @@
 package com.github.mahdim1000.domain;
 
 import com.github.f4b6a3.ulid.UlidCreator;
+import com.github.mahdim1000.api.CompactHeaders;
 import com.github.mahdim1000.api.OutboxEvent;
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Map;
-import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * JPA entity representing an outbox event.
  * This is an internal domain entity and should not be exposed to library users.
+ * The indexes are those the repository queries rely on, so generated schemas get them too.
  */
-@Table(name = "outbox")
+@Table(name = "outbox", indexes = {
+    @Index(name = "idx_outbox_claim", columnList = "status, ready, next_retry_at, partition_key"),
+    @Index(name = "idx_outbox_aggregate_version", columnList = "aggregate_id, version"),
+    @Index(name = "idx_outbox_status_id", columnList = "status, id")
+})
 @Entity
-public class OutboxEntity implements OutboxEvent {
+public class OutboxEntity implements OutboxEvent, Persistable<String> {
     
     @Id
     private String id;
@@ -26,14 +34,32 @@ public class OutboxEntity implements OutboxEvent {
     @Column(nullable = false)
     private String aggregateId;
     
-    @Column(columnDefinition = "TEXT", nullable = false)
-    private String payload;
+    // Non-negative hash of the aggregate id; relay lanes claim partitionKey % lanes
+    @Column(nullable = false)
+    private int partitionKey;
     
-    @Column(columnDefinition = "TEXT")
-    private String headers;
+    // Encoded by the configured PayloadCodec and sent to the broker as is
+    @JdbcTypeCode(SqlTypes.LONG32VARBINARY)
+    @Column(nullable = false)
+    private byte[] payload;
+    
+    @Column(nullable = false, length = 100)
+    private String contentType;
+    
+    // Compression applied to the stored payload, null if none
+    @Column(length = 20)
+    private String contentEncoding;
+    
+    // Encoded by CompactHeaders, null if the event has none
+    @JdbcTypeCode(SqlTypes.LONG32VARBINARY)
+    private byte[] headers;
     
     @Column(nullable = false)
     private Integer version;
+    
+    // True once every earlier ordered version of the aggregate has been published
+    @Column(nullable = false)
+    private boolean ready;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -53,56 +79,175 @@ public class OutboxEntity implements OutboxEvent {
     @Column(nullable = false)
     private LocalDateTime nextRetryAt;
     
+    // Kept apart from nextRetryAt, which deferral during an outage moves as well
+    private Long lastRetryDelayMs;
+    
     private LocalDateTime publishedAt;
     
     private LocalDateTime deadLetterAt;
     
     @Column(nullable = false)
     private boolean retryable = true;
+    
+    private String claimedBy;
+    
+    private String claimToken;
+    
+    private LocalDateTime leaseUntil;
+    
+    // Ids are assigned client-side, so tell Spring Data to persist rather than merge
+    @Transient
+    private boolean newEntity;
 
     // JPA requires default constructor
     protected OutboxEntity() {}
 
-    public static OutboxEntity create(String topic, String aggregateId, String payload, 
-                                     String headers, Integer version, boolean retryable) {
+    public static OutboxEntity create(String topic, String aggregateId, byte[] payload, String contentType,
+                                     String contentEncoding, byte[] headers, Integer version, boolean retryable) {
         var entity = new OutboxEntity();
         entity.id = UlidCreator.getUlid().toString();
         entity.topic = validateTopic(topic);
         entity.aggregateId = validateAggregateId(aggregateId);
+        entity.partitionKey = partitionOf(entity.aggregateId);
         entity.payload = validatePayload(payload);
+        entity.contentType = validateContentType(contentType);
+        entity.contentEncoding = contentEncoding;
         entity.headers = headers;
         entity.version = validateVersion(version);
+        entity.ready = entity.version == 0;
         entity.status = Status.PENDING;
         entity.createdAt = LocalDateTime.now();
         entity.nextRetryAt = LocalDateTime.now();
         entity.retryable = retryable;
+        entity.newEntity = true;
         return entity;
     }
 
+    /**
+     * Copies the event for relaying on another thread. The caller's persistence context may
+     * keep managing the original after commit (e.g. with open-in-view), so the relay must not
+     * change it: a later flush would write its outcome back without the claim-token guard.
+     */
+    public OutboxEntity detachedCopy() {
+        var copy = new OutboxEntity();
+        copy.id = id;
+        copy.topic = topic;
+        copy.aggregateId = aggregateId;
+        copy.partitionKey = partitionKey;
+        copy.payload = payload;
+        copy.contentType = contentType;
+        copy.contentEncoding = contentEncoding;
+        copy.headers = headers;
+        copy.version = version;
+        copy.ready = ready;
+        copy.status = status;
+        copy.errorMessage = errorMessage;
+        copy.retryCount = retryCount;
+        copy.createdAt = createdAt;
+        copy.retryAt = retryAt;
+        copy.nextRetryAt = nextRetryAt;
+        copy.lastRetryDelayMs = lastRetryDelayMs;
+        copy.publishedAt = publishedAt;
+        copy.deadLetterAt = deadLetterAt;
+        copy.retryable = retryable;
+        copy.claimedBy = claimedBy;
+        copy.claimToken = claimToken;
+        copy.leaseUntil = leaseUntil;
+        return copy;
+    }
+
+    /**
+     * Stable partition of an aggregate. All events of an aggregate share it, so they are
+     * always relayed by the same lane.
+     */
+    public static int partitionOf(String aggregateId) {
+        return aggregateId.hashCode() & Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.newEntity = false;
+    }
+
+    /**
+     * Marks an ordered event as next in line for its aggregate.
+     */
+    public void markReady() {
+        this.ready = true;
+    }
+
+    /**
+     * Claims this event for a relay node until the lease expires.
+     * Other nodes skip the row while the lease is live and reclaim it once it lapses.
+     * The claim token identifies the claiming batch, so outcomes are only written back
+     * by the batch that still owns the row.
+     */
+    public void claim(String nodeId, String claimToken, LocalDateTime leaseUntil) {
+        this.claimedBy = nodeId;
+        this.claimToken = claimToken;
+        this.leaseUntil = leaseUntil;
+    }
+
+    public boolean isClaimedWith(String claimToken) {
+        return claimToken != null && claimToken.equals(this.claimToken);
+    }
+
     public void markAsPublished() {
         this.status = Status.PUBLISHED;
         this.publishedAt = LocalDateTime.now();
         this.errorMessage = null;
+        releaseClaim();
     }
 
-    public void recordFailure(String errorMessage, int maxRetries, Duration initialDelay) {
+    /**
+     * Counts a failed attempt and schedules the next one after {@code retryDelay}.
+     * Without a delay, or if the event is not retryable, it moves to the dead letter state.
+     */
+    public void recordFailure(String errorMessage, Duration retryDelay) {
+        releaseClaim();
         this.retryCount++;
         this.retryAt = LocalDateTime.now();
         this.errorMessage = errorMessage;
         
-        if (!this.retryable || this.retryCount >= maxRetries) {
+        if (!this.retryable || retryDelay == null) {
             markAsDeadLetter();
         } else {
             this.status = Status.FAILED;
-            this.nextRetryAt = calculateBackoff(initialDelay);
+            this.nextRetryAt = this.retryAt.plus(retryDelay);
+            this.lastRetryDelayMs = retryDelay.toMillis();
+        }
+    }
+
+    /**
+     * The delay scheduled after the previous failure, or null if the event has not failed yet.
+     */
+    public Duration getLastRetryDelay() {
+        if (retryCount == 0 || lastRetryDelayMs == null) {
+            return null;
         }
+        return Duration.ofMillis(lastRetryDelayMs);
     }
 
-    private LocalDateTime calculateBackoff(Duration initialDelay) {
-        double multiplier = Math.pow(2, this.retryCount - 1);
-        long delaySeconds = (long) (initialDelay.getSeconds() * multiplier);
-        long jitter = ThreadLocalRandom.current().nextLong(0, initialDelay.getSeconds() / 2 + 1);
-        return LocalDateTime.now().plusSeconds(delaySeconds + jitter);
+    /**
+     * Puts the event back unsent until {@code resumeAt} without counting an attempt,
+     * e.g. while the broker is unreachable. The last retry delay is kept, so the time
+     * spent deferred does not feed into the next one.
+     */
+    public void defer(String errorMessage, LocalDateTime resumeAt) {
+        releaseClaim();
+        this.errorMessage = errorMessage;
+        this.nextRetryAt = resumeAt;
+    }
+
+    private void releaseClaim() {
+        this.claimToken = null;
+        this.leaseUntil = null;
     }
 
     private void markAsDeadLetter() {
@@ -121,14 +266,16 @@ public class OutboxEntity implements OutboxEvent {
     public String getAggregateId() { return aggregateId; }
     
     @Override
-    public String getPayload() { return payload; }
+    public byte[] getPayload() { return payload; }
     
     @Override
-    public Map<String, String> getHeaders() {
-        // This would need to be parsed from JSON in a real implementation
-        // For simplicity, returning empty map here
-        return Map.of();
-    }
+    public String getContentType() { return contentType; }
+    
+    @Override
+    public String getContentEncoding() { return contentEncoding; }
+    
+    @Override
+    public Map<String, String> getHeaders() { return CompactHeaders.decode(headers); }
     
     @Override
     public Integer getVersion() { return version; }
@@ -159,11 +306,17 @@ public class OutboxEntity implements OutboxEvent {
     public boolean isRetryable() { return retryable; }
 
     // Additional getters for internal use
-    public String getHeadersJson() { return headers; }
+    public byte[] getEncodedHeaders() { return headers; }
     public LocalDateTime getRetryAt() { return retryAt; }
     public LocalDateTime getNextRetryAt() { return nextRetryAt; }
+    public Long getLastRetryDelayMs() { return lastRetryDelayMs; }
     public LocalDateTime getDeadLetterAt() { return deadLetterAt; }
     public Status getInternalStatus() { return status; }
+    public boolean isReady() { return ready; }
+    public int getPartitionKey() { return partitionKey; }
+    public String getClaimedBy() { return claimedBy; }
+    public String getClaimToken() { return claimToken; }
+    public LocalDateTime getLeaseUntil() { return leaseUntil; }
 
     // Validation methods
     private static String validateTopic(String topic) {
@@ -180,13 +333,20 @@ public class OutboxEntity implements OutboxEvent {
         return aggregateId.trim();
     }
     
-    private static String validatePayload(String payload) {
-        if (payload == null || payload.trim().isEmpty()) {
+    private static byte[] validatePayload(byte[] payload) {
+        if (payload == null || payload.length == 0) {
             throw new IllegalArgumentException("Payload cannot be null or empty");
         }
         return payload;
     }
     
+    private static String validateContentType(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            throw new IllegalArgumentException("Content type cannot be null or empty");
+        }
+        return contentType;
+    }
+    
     private static Integer validateVersion(Integer version) {
         if (version == null || version < 0) {
             throw new IllegalArgumentException("Version cannot be null or negative");
@@ -1,12 +1,16 @@
 package com.github.mahdim1000.domain;
 
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,43 +20,121 @@ import java.util.Optional;
  */
 public interface OutboxRepository extends JpaRepository<OutboxEntity, String> {
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("""
+    /*
+     * Claim queries only consider ready rows: unordered events, and ordered events whose
+     * predecessor has been published. Served by idx_outbox_claim on
+     * (status, ready, next_retry_at, partition_key), declared on OutboxEntity.
+     * Each relay lane only sees the aggregates hashed to it (partitionKey % lanes). That
+     * predicate cannot be used to seek the index: it is checked on the index entries of the
+     * due rows in next_retry_at order, so each lane also walks past the due rows of the other
+     * lanes until its batch is full. Few lanes keep this cheap.
+     * Topics whose circuit is open are left out, so their rows are not claimed only to be put back.
+     */
+
+    /** Hibernate's lock timeout value for {@code SKIP LOCKED}. */
+    String SKIP_LOCKED = "-2";
+
+    String PENDING_CLAIM_QUERY = """
             SELECT o FROM OutboxEntity o
             WHERE o.status = 'PENDING'
+            AND o.ready = true
+            AND MOD(o.partitionKey, :lanes) = :lane
+            AND o.topic NOT IN :rejectedTopics
             AND o.nextRetryAt <= :now
-            AND (o.version = 0 OR NOT EXISTS (
-                SELECT 1 FROM OutboxEntity o2
-                WHERE o2.aggregateId = o.aggregateId
-                AND o2.version < o.version
-                AND o2.status != 'PUBLISHED'
-                )
-            )
-            ORDER BY o.createdAt ASC, o.aggregateId ASC, o.version ASC
-            LIMIT :batchSize""")
-    List<OutboxEntity> findPendingMessages(@Param("batchSize") Integer batchSize, 
-                                          @Param("now") LocalDateTime now);
+            AND (o.leaseUntil IS NULL OR o.leaseUntil < :now)
+            ORDER BY o.nextRetryAt ASC, o.id ASC
+            LIMIT :batchSize""";
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("""
+    String FAILED_CLAIM_QUERY = """
             SELECT o FROM OutboxEntity o
             WHERE o.status = 'FAILED'
+            AND o.ready = true
+            AND MOD(o.partitionKey, :lanes) = :lane
+            AND o.topic NOT IN :rejectedTopics
             AND o.nextRetryAt <= :now
-            AND (o.version = 0 OR NOT EXISTS (
-                SELECT 1 FROM OutboxEntity o2
-                WHERE o2.aggregateId = o.aggregateId
-                AND o2.version < o.version
-                AND o2.status != 'PUBLISHED'
-                )
-            )
-            ORDER BY o.createdAt ASC, o.aggregateId ASC, o.version ASC
-            LIMIT :batchSize""")
+            AND (o.leaseUntil IS NULL OR o.leaseUntil < :now)
+            ORDER BY o.nextRetryAt ASC, o.id ASC
+            LIMIT :batchSize""";
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(PENDING_CLAIM_QUERY)
+    List<OutboxEntity> findPendingMessages(@Param("batchSize") Integer batchSize, 
+                                          @Param("now") LocalDateTime now,
+                                          @Param("lanes") int lanes,
+                                          @Param("lane") int lane,
+                                          @Param("rejectedTopics") Collection<String> rejectedTopics);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(FAILED_CLAIM_QUERY)
     List<OutboxEntity> findFailedMessages(@Param("batchSize") Integer batchSize, 
-                                         @Param("now") LocalDateTime now);
+                                         @Param("now") LocalDateTime now,
+                                         @Param("lanes") int lanes,
+                                         @Param("lane") int lane,
+                                         @Param("rejectedTopics") Collection<String> rejectedTopics);
+
+    /**
+     * Same as {@link #findPendingMessages} but skips rows locked by other relay nodes
+     * ({@code FOR UPDATE SKIP LOCKED}), so concurrent nodes claim disjoint batches.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query(PENDING_CLAIM_QUERY)
+    List<OutboxEntity> findPendingMessagesSkipLocked(@Param("batchSize") Integer batchSize,
+                                                    @Param("now") LocalDateTime now,
+                                                    @Param("lanes") int lanes,
+                                                    @Param("lane") int lane,
+                                          @Param("rejectedTopics") Collection<String> rejectedTopics);
+
+    /**
+     * Same as {@link #findFailedMessages} but skips rows locked by other relay nodes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query(FAILED_CLAIM_QUERY)
+    List<OutboxEntity> findFailedMessagesSkipLocked(@Param("batchSize") Integer batchSize,
+                                                   @Param("now") LocalDateTime now,
+                                                   @Param("lanes") int lanes,
+                                                   @Param("lane") int lane,
+                                          @Param("rejectedTopics") Collection<String> rejectedTopics);
+
+    @Modifying
+    @Query("""
+        UPDATE OutboxEntity o
+        SET o.claimedBy = :nodeId, o.claimToken = :claimToken, o.leaseUntil = :leaseUntil
+        WHERE o.id IN :ids
+    """)
+    int claim(@Param("ids") Collection<String> ids,
+              @Param("nodeId") String nodeId,
+              @Param("claimToken") String claimToken,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("""
+        UPDATE OutboxEntity o
+        SET o.claimToken = NULL, o.leaseUntil = NULL
+        WHERE o.id IN :ids AND o.claimToken = :claimToken
+    """)
+    int releaseClaims(@Param("ids") Collection<String> ids, @Param("claimToken") String claimToken);
 
     @Query("SELECT MAX(o.version) FROM OutboxEntity o WHERE o.aggregateId = :aggregateId")
     Optional<Integer> findMaxVersionByAggregateId(@Param("aggregateId") String aggregateId);
 
+    @Query("""
+        SELECT MIN(o.version) FROM OutboxEntity o
+        WHERE o.aggregateId = :aggregateId
+        AND o.version > 0
+        AND o.status != 'PUBLISHED'
+    """)
+    Optional<Integer> findFirstUnpublishedVersion(@Param("aggregateId") String aggregateId);
+
+    @Modifying
+    @Query("""
+        UPDATE OutboxEntity o SET o.ready = true
+        WHERE o.aggregateId = :aggregateId
+        AND o.version = :version
+    """)
+    int markReady(@Param("aggregateId") String aggregateId, @Param("version") Integer version);
+
     @Query("""
         SELECT COUNT(o) FROM OutboxEntity o
         WHERE o.aggregateId = :aggregateId
@@ -70,7 +152,82 @@ public interface OutboxRepository extends JpaRepository<OutboxEntity, String> {
     Optional<OutboxEntity> findByAggregateIdAndVersion(@Param("aggregateId") String aggregateId, 
                                                       @Param("version") Integer version);
 
+    /*
+     * Retention queries page through expired rows by id. Ids are ULIDs and rows are
+     * published or dead-lettered after they were created, so {@code beforeId} (the smallest
+     * ULID of the cutoff time) bounds the scan to the old end of the primary key.
+     */
+
+    @Query("""
+        SELECT o.id FROM OutboxEntity o
+        WHERE o.status = 'PUBLISHED'
+        AND o.id > :afterId AND o.id < :beforeId
+        AND o.publishedAt < :cutoff
+        ORDER BY o.id ASC
+        LIMIT :limit
+    """)
+    List<String> findPublishedIdsBefore(@Param("cutoff") LocalDateTime cutoff,
+                                        @Param("afterId") String afterId,
+                                        @Param("beforeId") String beforeId,
+                                        @Param("limit") int limit);
+
+    @Query("""
+        SELECT o.id FROM OutboxEntity o
+        WHERE o.status = 'DEAD_LETTER'
+        AND o.id > :afterId AND o.id < :beforeId
+        AND o.deadLetterAt < :cutoff
+        ORDER BY o.id ASC
+        LIMIT :limit
+    """)
+    List<String> findDeadLetterIdsBefore(@Param("cutoff") LocalDateTime cutoff,
+                                         @Param("afterId") String afterId,
+                                         @Param("beforeId") String beforeId,
+                                         @Param("limit") int limit);
+
+    /*
+     * Dead letter replay pages through matching dead letters by id, so each row is visited
+     * once and earlier versions of an aggregate are requeued before later ones.
+     */
+
+    @Query("""
+        SELECT o.id FROM OutboxEntity o
+        WHERE o.status = 'DEAD_LETTER'
+        AND o.id > :afterId
+        AND (:topic IS NULL OR o.topic = :topic)
+        AND (:from IS NULL OR o.deadLetterAt >= :from)
+        AND (:to IS NULL OR o.deadLetterAt < :to)
+        AND (:errorPattern IS NULL OR o.errorMessage LIKE :errorPattern)
+        ORDER BY o.id ASC
+        LIMIT :limit
+    """)
+    List<String> findDeadLetterIds(@Param("topic") String topic,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to,
+                                   @Param("errorPattern") String errorPattern,
+                                   @Param("afterId") String afterId,
+                                   @Param("limit") int limit);
+
+    /**
+     * Moves dead letters back to PENDING with a fresh retry budget. The {@code ready} flag is
+     * left alone, so an ordered event is only relayed once its predecessors have been.
+     */
+    @Modifying
+    @Query("""
+        UPDATE OutboxEntity o
+        SET o.status = 'PENDING', o.retryCount = 0, o.nextRetryAt = :now, o.lastRetryDelayMs = NULL,
+            o.deadLetterAt = NULL, o.claimToken = NULL, o.leaseUntil = NULL
+        WHERE o.id IN :ids AND o.status = 'DEAD_LETTER'
+    """)
+    int requeueDeadLetters(@Param("ids") Collection<String> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEntity o WHERE o.id IN :ids AND o.status = :status")
+    int deleteByIdsAndStatus(@Param("ids") Collection<String> ids, @Param("status") OutboxEntity.Status status);
+
     // Metrics queries
+    @Query("SELECT o.status AS status, COUNT(o) AS eventCount FROM OutboxEntity o GROUP BY o.status")
+    List<StatusCountRepository.Counter> countGroupedByStatus();
+
     @Query("SELECT COUNT(o) FROM OutboxEntity o WHERE o.status = :status")
     long countByStatus(@Param("status") OutboxEntity.Status status);
 
@@ -0,0 +1,51 @@
+package com.github.mahdim1000.domain;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * JPA entity holding the number of outbox rows in one status.
+ * Maintained incrementally by every node and periodically reconciled with an exact count.
+ * This is an internal domain entity and should not be exposed to library users.
+ */
+@Table(name = "outbox_stats")
+@Entity
+public class StatusCount implements Persistable<OutboxEntity.Status> {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private OutboxEntity.Status status;
+
+    @Column(nullable = false)
+    private long eventCount;
+
+    // Missing rows must be inserted, never merged over a concurrently created one
+    @Transient
+    private boolean newEntity;
+
+    // JPA requires default constructor
+    protected StatusCount() {}
+
+    public static StatusCount create(OutboxEntity.Status status, long eventCount) {
+        var count = new StatusCount();
+        count.status = status;
+        count.eventCount = eventCount;
+        count.newEntity = true;
+        return count;
+    }
+
+    @Override
+    public OutboxEntity.Status getId() { return status; }
+
+    @Override
+    public boolean isNew() { return newEntity; }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.newEntity = false;
+    }
+
+    public OutboxEntity.Status getStatus() { return status; }
+    public long getEventCount() { return eventCount; }
+}
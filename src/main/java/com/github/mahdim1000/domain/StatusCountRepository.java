@@ -0,0 +1,34 @@
+package com.github.mahdim1000.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Repository for the per-status row counters.
+ * This is an internal repository and should not be exposed to library users.
+ */
+public interface StatusCountRepository extends JpaRepository<StatusCount, OutboxEntity.Status> {
+
+    @Modifying
+    @Query("UPDATE StatusCount c SET c.eventCount = c.eventCount + :delta WHERE c.status = :status")
+    int add(@Param("status") OutboxEntity.Status status, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE StatusCount c SET c.eventCount = :eventCount WHERE c.status = :status")
+    int set(@Param("status") OutboxEntity.Status status, @Param("eventCount") long eventCount);
+
+    /**
+     * Reads the counters as projections so stale managed entities are never returned.
+     */
+    @Query("SELECT c.status AS status, c.eventCount AS eventCount FROM StatusCount c")
+    List<Counter> findCounters();
+
+    interface Counter {
+        OutboxEntity.Status getStatus();
+        long getEventCount();
+    }
+}
@@ -1,9 +1,14 @@
 package com.github.mahdim1000.example;
 
+import com.github.mahdim1000.core.DeadLetterReplayer;
 import com.github.mahdim1000.core.OutboxManager;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 /**
@@ -13,6 +18,7 @@ import java.util.Map;
  * - Simple usage in REST endpoints
  * - Health monitoring
  * - Metrics collection
+ * - Replaying dead letters after an outage
  */
 @RestController
 @RequestMapping("/api/outbox-example")
@@ -67,4 +73,42 @@ public class OutboxExampleController {
             "successRate", String.format("%.2f%%", metrics.successRate())
         );
     }
+    
+    @PostMapping("/dead-letters/replays")
+    public Map<String, Object> replayDeadLetters(
+            @RequestParam(required = false) String topic,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String errorPattern,
+            @RequestParam(required = false) Double rate) {
+        var replay = outboxManager.replayDeadLetters();
+        if (topic != null) {
+            replay.topic(topic);
+        }
+        if (rate != null) {
+            replay.rate(rate);
+        }
+        var started = replay.deadLetteredBetween(from, to)
+                            .errorMatching(errorPattern)
+                            .start();
+        return replayStatus(started);
+    }
+    
+    @GetMapping("/dead-letters/replays/{replayId}")
+    public Map<String, Object> replayStatus(@PathVariable String replayId) {
+        return outboxManager.findReplay(replayId)
+            .map(this::replayStatus)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown replay " + replayId));
+    }
+    
+    private Map<String, Object> replayStatus(DeadLetterReplayer.Replay replay) {
+        var progress = replay.getProgress();
+        return Map.of(
+            "replayId", replay.getId(),
+            "requeued", progress.requeued(),
+            "finished", progress.finished(),
+            "elapsedMillis", progress.elapsed().toMillis(),
+            "rowsPerSecond", Math.round(progress.rowsPerSecond())
+        );
+    }
 }
@@ -1,8 +1,15 @@
 package com.github.mahdim1000.publisher;
 
+import com.github.mahdim1000.api.CompactHeaders;
 import com.github.mahdim1000.api.EventPublisher;
+import com.github.mahdim1000.api.PublishRequest;
 import com.github.mahdim1000.api.PublishingException;
+import com.github.mahdim1000.config.OutboxProperties;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.InvalidTopicException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.header.internals.RecordHeader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,54 +18,153 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Kafka implementation of EventPublisher.
  * Publishes events to Apache Kafka topics.
+ * 
+ * Payloads are sent as the stored bytes, so the producer needs
+ * {@code spring.kafka.producer.value-serializer=org.apache.kafka.common.serialization.ByteArraySerializer}.
+ * 
+ * Records are keyed by aggregate id unless configured otherwise, so every event of an
+ * aggregate goes to the same partition. An ordered event is only relayed once its
+ * predecessor is acknowledged, and the idempotent producer keeps each partition in order
+ * across retries with up to 5 requests in flight, so sends never need to be serialized.
+ * 
+ * The key and the event-id header are only applied to relayed sends ({@link #publishAsync}),
+ * which carry the event and aggregate ids. The blocking {@code publish} methods know neither,
+ * so they send unkeyed records with just the given headers.
  */
 @Component
 @ConditionalOnProperty(name = "outbox.publisher.type", havingValue = "kafka")
 public class KafkaEventPublisher implements EventPublisher {
     
     private static final Logger log = LoggerFactory.getLogger(KafkaEventPublisher.class);
-    private static final long SEND_TIMEOUT_SECONDS = 30;
     
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final Duration timeout;
+    private final OutboxProperties.RecordKey recordKey;
+    private final String eventIdHeader;
     
-    public KafkaEventPublisher(KafkaTemplate<String, String> kafkaTemplate) {
+    public KafkaEventPublisher(KafkaTemplate<String, byte[]> kafkaTemplate, OutboxProperties properties) {
         this.kafkaTemplate = kafkaTemplate;
+        this.timeout = properties.publisher().timeout();
+        this.recordKey = properties.publisher().kafka().key();
+        this.eventIdHeader = properties.publisher().kafka().eventIdHeader();
+        warnIfRetriesCanReorder(kafkaTemplate.getProducerFactory().getConfigurationProperties());
+    }
+
+    private void warnIfRetriesCanReorder(Map<String, Object> producerConfig) {
+        boolean idempotent = Boolean.parseBoolean(
+            String.valueOf(producerConfig.getOrDefault(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, "true")));
+        int maxInFlight = Integer.parseInt(
+            String.valueOf(producerConfig.getOrDefault(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, "5")));
+        if (!idempotent && maxInFlight > 1) {
+            log.warn("Kafka producer has enable.idempotence=false and max.in.flight.requests.per.connection={}; "
+                + "a retried send can overtake the next one, so events of an aggregate may be reordered", maxInFlight);
+        }
     }
     
     @Override
-    public void publish(String topic, String payload) throws PublishingException {
+    public void publish(String topic, byte[] payload) throws PublishingException {
         publish(topic, payload, Map.of());
     }
     
+    /**
+     * Sends an unkeyed record without the event-id header; see the class comment.
+     */
     @Override
-    public void publish(String topic, String payload, Map<String, String> headers) throws PublishingException {
+    public void publish(String topic, byte[] payload, Map<String, String> headers) throws PublishingException {
         try {
-            CompletableFuture<SendResult<String, String>> future;
-            
-            if (headers != null && !headers.isEmpty()) {
-                ProducerRecord<String, String> record = new ProducerRecord<>(topic, payload);
-                headers.forEach((key, value) -> 
-                    record.headers().add(new RecordHeader(key, value.getBytes())));
-                future = kafkaTemplate.send(record);
-            } else {
-                future = kafkaTemplate.send(topic, payload);
-            }
-            
-            SendResult<String, String> result = future.get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            SendResult<String, byte[]> result = kafkaTemplate.send(toRecord(topic, null, payload, headers))
+                .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
             log.debug("Successfully published message to Kafka topic '{}' at offset: {}", 
                 topic, result.getRecordMetadata().offset());
             
         } catch (Exception e) {
             log.error("Failed to publish message to Kafka topic '{}': {}", topic, e.getMessage(), e);
-            throw new PublishingException("Failed to publish to Kafka: " + e.getMessage(), e);
+            throw publishingFailure(e);
+        }
+    }
+    
+    /**
+     * Hands the record to the producer and returns immediately; the producer batches
+     * outstanding records and completes the future when the broker acknowledges it.
+     * A batch is therefore sent in full before any acknowledgement is awaited.
+     */
+    @Override
+    public CompletableFuture<Void> publishAsync(PublishRequest request) {
+        CompletableFuture<Void> acknowledged = new CompletableFuture<>();
+        try {
+            kafkaTemplate.send(toRecord(request))
+                .whenComplete((result, error) -> {
+                    if (error == null) {
+                        log.debug("Successfully published message to Kafka topic '{}' at offset: {}", 
+                            request.topic(), result.getRecordMetadata().offset());
+                        acknowledged.complete(null);
+                    } else {
+                        log.error("Failed to publish message to Kafka topic '{}': {}", 
+                            request.topic(), error.getMessage());
+                        acknowledged.completeExceptionally(publishingFailure(error));
+                    }
+                });
+        } catch (Exception e) {
+            log.error("Failed to publish message to Kafka topic '{}': {}", request.topic(), e.getMessage(), e);
+            acknowledged.completeExceptionally(publishingFailure(e));
         }
+        return acknowledged
+            .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+            .exceptionallyCompose(error -> CompletableFuture.failedFuture(error instanceof TimeoutException
+                ? new PublishingException("No acknowledgement from Kafka within " + timeout, error)
+                : error));
+    }
+    
+    /**
+     * Wraps a send failure, marking the ones that resending the same record cannot fix as permanent.
+     */
+    static PublishingException publishingFailure(Throwable error) {
+        boolean permanent = false;
+        for (Throwable cause = error; cause != null && !permanent; cause = cause.getCause()) {
+            permanent = cause instanceof RecordTooLargeException
+                || cause instanceof InvalidTopicException
+                || cause instanceof SerializationException;
+        }
+        return new PublishingException("Failed to publish to Kafka: " + error.getMessage(), error, !permanent);
+    }
+    
+    private ProducerRecord<String, byte[]> toRecord(PublishRequest request) {
+        String key = switch (recordKey) {
+            case AGGREGATE_ID -> request.aggregateId();
+            case EVENT_ID -> request.eventId();
+            case NONE -> null;
+        };
+        var record = toRecord(request.topic(), key, request.payload(), request.headers());
+        record.headers().add(eventIdHeader, request.eventId().getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+    
+    private ProducerRecord<String, byte[]> toRecord(String topic, String key, byte[] payload,
+                                                     Map<String, String> headers) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, key, payload);
+        if (headers instanceof CompactHeaders compact) {
+            // Stored values are already UTF-8
+            compact.forEachRaw((name, value) -> record.headers().add(new RecordHeader(name, value)));
+        } else if (headers != null) {
+            headers.forEach((name, value) -> 
+                record.headers().add(new RecordHeader(name, value.getBytes(StandardCharsets.UTF_8))));
+        }
+        return record;
+    }
+    
+    @Override
+    public boolean batchesNatively() {
+        return true;
     }
     
     @Override
@@ -1,12 +1,15 @@
 package com.github.mahdim1000.publisher;
 
 import com.github.mahdim1000.api.EventPublisher;
+import com.github.mahdim1000.api.PayloadCodec;
+import com.github.mahdim1000.api.PayloadCompressor;
 import com.github.mahdim1000.api.PublishingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 /**
@@ -20,23 +23,33 @@ public class LoggingEventPublisher implements EventPublisher {
     private static final Logger log = LoggerFactory.getLogger(LoggingEventPublisher.class);
     
     @Override
-    public void publish(String topic, String payload) throws PublishingException {
+    public void publish(String topic, byte[] payload) throws PublishingException {
         publish(topic, payload, Map.of());
     }
     
     @Override
-    public void publish(String topic, String payload, Map<String, String> headers) throws PublishingException {
-        log.info("📤 Publishing to topic '{}': {}", topic, payload);
+    public void publish(String topic, byte[] payload, Map<String, String> headers) throws PublishingException {
+        String text = new String(payload, StandardCharsets.UTF_8);
+        if (isText(headers.get(PayloadCodec.CONTENT_TYPE_HEADER))
+                && !headers.containsKey(PayloadCompressor.CONTENT_ENCODING_HEADER)) {
+            log.info("📤 Publishing to topic '{}': {}", topic, text);
+        } else {
+            log.info("📤 Publishing to topic '{}': {} bytes", topic, payload.length);
+        }
         if (!headers.isEmpty()) {
             log.debug("📋 Headers: {}", headers);
         }
         
-        // Simulate occasional failures for testing
-        if (payload.contains("FAIL_TEST")) {
+        // Simulate occasional failures for testing; binary formats keep strings readable too
+        if (text.contains("FAIL_TEST")) {
             throw new PublishingException("Simulated publishing failure for testing");
         }
     }
     
+    private static boolean isText(String contentType) {
+        return contentType == null || contentType.endsWith("json") || contentType.startsWith("text/");
+    }
+    
     @Override
     public boolean isHealthy() {
         return true;
@@ -1,19 +1,36 @@
 package com.github.mahdim1000.publisher;
 
 import com.github.mahdim1000.api.EventPublisher;
+import com.github.mahdim1000.api.PayloadCodec;
+import com.github.mahdim1000.api.PayloadCompressor;
+import com.github.mahdim1000.api.PublishRequest;
 import com.github.mahdim1000.api.PublishingException;
+import com.github.mahdim1000.config.OutboxProperties;
+import com.rabbitmq.client.Channel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * RabbitMQ implementation of EventPublisher.
  * Publishes events to RabbitMQ queues/exchanges.
+ * 
+ * A batch is published on one channel and its publisher confirms are awaited once, within
+ * {@code outbox.publisher.timeout}; a nacked message fails on its own while the rest of the
+ * batch succeeds. Confirms need {@code spring.rabbitmq.publisher-confirm-type=simple} (or
+ * {@code correlated}); without them messages are sent unconfirmed.
  */
 @Component
 @ConditionalOnProperty(name = "outbox.publisher.type", havingValue = "rabbitmq")
@@ -22,44 +39,104 @@ public class RabbitMQEventPublisher implements EventPublisher {
     private static final Logger log = LoggerFactory.getLogger(RabbitMQEventPublisher.class);
     
     private final RabbitTemplate rabbitTemplate;
+    private final Duration timeout;
+    private final boolean confirms;
     
-    public RabbitMQEventPublisher(RabbitTemplate rabbitTemplate) {
+    public RabbitMQEventPublisher(RabbitTemplate rabbitTemplate, OutboxProperties properties) {
         this.rabbitTemplate = rabbitTemplate;
+        this.timeout = properties.publisher().timeout();
+        var connectionFactory = rabbitTemplate.getConnectionFactory();
+        this.confirms = connectionFactory.isSimplePublisherConfirms() || connectionFactory.isPublisherConfirms();
+        if (!confirms) {
+            log.warn("RabbitMQ publisher confirms are disabled; messages count as published once written "
+                + "to the socket. Set spring.rabbitmq.publisher-confirm-type=simple to wait for the broker");
+        }
     }
     
     @Override
-    public void publish(String topic, String payload) throws PublishingException {
+    public void publish(String topic, byte[] payload) throws PublishingException {
         publish(topic, payload, Map.of());
     }
     
     @Override
-    public void publish(String topic, String payload, Map<String, String> headers) throws PublishingException {
+    public void publish(String topic, byte[] payload, Map<String, String> headers) throws PublishingException {
         try {
-            if (headers != null && !headers.isEmpty()) {
-                MessageProperties messageProperties = new MessageProperties();
-                headers.forEach(messageProperties::setHeader);
-                
-                org.springframework.amqp.core.Message message = 
-                    new org.springframework.amqp.core.Message(payload.getBytes(), messageProperties);
-                rabbitTemplate.send(topic, message);
+            publishAsync(new PublishRequest(null, topic, null, payload, headers)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof PublishingException publishingException) {
+                throw publishingException;
+            }
+            throw new PublishingException("Failed to publish to RabbitMQ: " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public CompletableFuture<Void> publishAsync(PublishRequest request) {
+        return publishBatch(List.of(request)).getFirst();
+    }
+    
+    /**
+     * Publishes the whole batch on one channel, then waits once for its confirms.
+     * Messages are sent in list order, so a queue receives them in that order.
+     */
+    @Override
+    public List<CompletableFuture<Void>> publishBatch(List<PublishRequest> requests) {
+        List<Message> messages = requests.stream().map(RabbitMQEventPublisher::toMessage).toList();
+        var confirmations = new Confirmations(messages.size());
+        try {
+            if (confirms) {
+                rabbitTemplate.invoke(operations -> {
+                    confirmations.start(operations.execute(Channel::getNextPublishSeqNo));
+                    send(operations, requests, messages);
+                    operations.waitForConfirmsOrDie(timeout.toMillis());
+                    return null;
+                }, confirmations::ack, confirmations::nack);
             } else {
-                rabbitTemplate.convertAndSend(topic, payload);
+                rabbitTemplate.invoke(operations -> send(operations, requests, messages));
             }
-            
-            log.debug("Successfully published message to RabbitMQ topic: {}", topic);
-            
+            log.debug("Successfully published {} messages to RabbitMQ", messages.size());
+            return confirmations.results(null);
         } catch (Exception e) {
-            log.error("Failed to publish message to RabbitMQ topic '{}': {}", topic, e.getMessage(), e);
-            throw new PublishingException("Failed to publish to RabbitMQ: " + e.getMessage(), e);
+            log.error("Failed to publish batch of {} messages to RabbitMQ: {}", messages.size(), e.getMessage(), e);
+            return confirmations.results(e);
+        }
+    }
+    
+    private static Void send(RabbitOperations operations, List<PublishRequest> requests, List<Message> messages) {
+        for (int i = 0; i < messages.size(); i++) {
+            operations.send(requests.get(i).topic(), messages.get(i));
         }
+        return null;
+    }
+    
+    /**
+     * Wraps the stored payload bytes as they are; no message converter is involved.
+     */
+    private static Message toMessage(PublishRequest request) {
+        MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setMessageId(request.eventId());
+        request.headers().forEach(messageProperties::setHeader);
+        String contentType = request.headers().get(PayloadCodec.CONTENT_TYPE_HEADER);
+        if (contentType != null) {
+            messageProperties.setContentType(contentType);
+        }
+        String contentEncoding = request.headers().get(PayloadCompressor.CONTENT_ENCODING_HEADER);
+        if (contentEncoding != null) {
+            messageProperties.setContentEncoding(contentEncoding);
+        }
+        return new Message(request.payload(), messageProperties);
+    }
+    
+    @Override
+    public boolean batchesNatively() {
+        return true;
     }
     
     @Override
     public boolean isHealthy() {
-        try {
-            // Simple health check by checking connection
-            rabbitTemplate.getConnectionFactory().createConnection().isOpen();
-            return true;
+        // Closing returns a cached connection to the factory rather than closing it
+        try (var connection = rabbitTemplate.getConnectionFactory().createConnection()) {
+            return connection.isOpen();
         } catch (Exception e) {
             log.warn("RabbitMQ health check failed: {}", e.getMessage());
             return false;
@@ -70,4 +147,62 @@ public class RabbitMQEventPublisher implements EventPublisher {
     public String getType() {
         return "rabbitmq";
     }
-}
\ No newline at end of file
+    
+    /**
+     * Confirm state of each message in a batch, indexed by delivery tag minus the first tag.
+     * Confirm callbacks run on the connection thread before the waiting thread wakes up.
+     */
+    private static final class Confirmations {
+        
+        private static final byte UNCONFIRMED = 0;
+        private static final byte ACKED = 1;
+        private static final byte NACKED = 2;
+        
+        private final byte[] states;
+        private long firstTag;
+        
+        Confirmations(int size) {
+            this.states = new byte[size];
+        }
+        
+        synchronized void start(long firstTag) {
+            this.firstTag = firstTag;
+        }
+        
+        synchronized void ack(long deliveryTag, boolean multiple) {
+            mark(deliveryTag, multiple, ACKED);
+        }
+        
+        synchronized void nack(long deliveryTag, boolean multiple) {
+            mark(deliveryTag, multiple, NACKED);
+        }
+        
+        private void mark(long deliveryTag, boolean multiple, byte state) {
+            long last = Math.min(deliveryTag - firstTag, states.length - 1);
+            for (long i = multiple ? 0 : last; i <= last; i++) {
+                if (i >= 0 && states[(int) i] == UNCONFIRMED) {
+                    states[(int) i] = state;
+                }
+            }
+        }
+        
+        /**
+         * @param failure why the batch did not complete, or {@code null} if every message was confirmed
+         */
+        synchronized List<CompletableFuture<Void>> results(Exception failure) {
+            List<CompletableFuture<Void>> results = new ArrayList<>(states.length);
+            for (byte state : states) {
+                if (failure == null || state == ACKED) {
+                    results.add(CompletableFuture.completedFuture(null));
+                } else if (state == NACKED) {
+                    results.add(CompletableFuture.failedFuture(
+                        new PublishingException("RabbitMQ rejected the message (nack)")));
+                } else {
+                    results.add(CompletableFuture.failedFuture(
+                        new PublishingException("Failed to publish to RabbitMQ: " + failure.getMessage(), failure)));
+                }
+            }
+            return results;
+        }
+    }
+}
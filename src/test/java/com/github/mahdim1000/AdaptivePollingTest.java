@@ -0,0 +1,103 @@
+package com.github.mahdim1000;
+
+import com.github.mahdim1000.core.OutboxManager;
+import com.github.mahdim1000.core.OutboxStatistics;
+import com.github.mahdim1000.core.OutboxProcessor;
+import com.github.mahdim1000.domain.OutboxEntity;
+import com.github.mahdim1000.domain.OutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.github.mahdim1000.Await.awaitTrue;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The polling loops back off while idle and drain a backlog without waiting between full batches.
+ * The failed loops back off no further than the initial retry delay.
+ */
+@RelayTest
+@TestPropertySource(properties = {
+    "outbox.publisher.type=logging",
+    "outbox.processing.enabled=true",
+    "outbox.processing.publish-rate=PT0.4S", // Backoff ceiling
+    "outbox.processing.retry-rate=PT1H",
+    "outbox.retry.initial-delay=PT0.3S",
+    "outbox.polling.min-interval=PT0.01S",
+    "outbox.handoff.enabled=false", // Leave everything to the pollers
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class AdaptivePollingTest {
+
+    @Autowired
+    private OutboxManager outboxManager;
+
+    @Autowired
+    private OutboxProcessor processor;
+
+    @Autowired
+    private OutboxRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private OutboxStatistics statistics;
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteAll();
+        statistics.reconcile(); // deleteAll bypasses the status counters
+    }
+
+    @Test
+    void shouldBackOffToCeilingWhileIdle() {
+        // Then
+        var pending = loop("pending");
+        awaitTrue(() -> pending.getInterval().equals(Duration.ofMillis(400)));
+        assertThat(meterRegistry.get("outbox.poll.interval").tag("status", "pending").tag("lane", "0")
+            .timeGauge().value(TimeUnit.MILLISECONDS)).isEqualTo(400);
+    }
+
+    @Test
+    void shouldDrainBacklogOfSeveralBatches() {
+        // Given - several times the test batch size of 10
+        outboxManager.publishAll("test.topic", IntStream.range(0, 35).boxed().toList(),
+                                 i -> "backlog-" + i)
+                     .execute();
+
+        // Then
+        awaitTrue(() -> outboxManager.getMetrics().publishedCount() == 35);
+    }
+
+    @Test
+    void shouldPickUpSubSecondRetryWhileIdle() {
+        // Given - the failed loop has backed off as far as it goes
+        var failed = loop("failed");
+        awaitTrue(() -> failed.getInterval().equals(Duration.ofMillis(300)));
+        var message = OutboxEntity.create("test.topic", "retry-1", "{}".getBytes(StandardCharsets.UTF_8),
+            "application/json", null, null, 0, true);
+        message.recordFailure("Simulated broker failure", Duration.ofMillis(200));
+        repository.save(message);
+        long started = System.nanoTime();
+
+        // Then - relayed within one ceiling of falling due rather than after retry-rate
+        awaitTrue(() -> repository.findById(message.getId()).orElseThrow().getInternalStatus()
+            == OutboxEntity.Status.PUBLISHED);
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    private OutboxProcessor.PollLoop loop(String kind) {
+        return processor.getPollLoops().stream()
+            .filter(loop -> loop.getKind().equals(kind))
+            .findFirst()
+            .orElseThrow();
+    }
+}
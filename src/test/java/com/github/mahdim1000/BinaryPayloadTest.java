@@ -0,0 +1,75 @@
+package com.github.mahdim1000;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.mahdim1000.core.OutboxManager;
+import com.github.mahdim1000.core.OutboxService;
+import com.github.mahdim1000.core.OutboxStatistics;
+import com.github.mahdim1000.domain.OutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Payloads are stored and relayed in the configured binary format.
+ */
+@SpringBootTest(classes = TestApplication.class)
+@TestPropertySource(properties = {
+    "outbox.publisher.type=logging",
+    "outbox.processing.enabled=false", // Drive processing manually
+    "outbox.payload.format=cbor",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class BinaryPayloadTest {
+
+    @Autowired
+    private OutboxManager outboxManager;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRepository repository;
+
+    @Autowired
+    private OutboxStatistics statistics;
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteAll();
+        statistics.reconcile(); // deleteAll bypasses the status counters
+    }
+
+    @Test
+    void shouldStoreAndRelayCborPayloads() throws Exception {
+        // Given
+        var event = new OutboxLibraryTest.TestEvent("binary message", LocalDateTime.of(2025, 1, 1, 10, 15));
+        outboxManager.publish("test.topic", "agg-cbor", event).execute();
+        outboxManager.publish("test.topic", "agg-fail", new OutboxLibraryTest.TestEvent("FAIL_TEST", null)).execute();
+
+        // Then
+        var stored = repository.findAll().stream()
+            .filter(message -> message.getAggregateId().equals("agg-cbor"))
+            .findFirst().orElseThrow();
+        assertThat(stored.getContentType()).isEqualTo("application/cbor");
+        assertThat(new String(stored.getPayload(), StandardCharsets.UTF_8)).doesNotStartWith("{");
+        var cbor = new ObjectMapper(new CBORFactory()).registerModule(new JavaTimeModule());
+        assertThat(cbor.readValue(stored.getPayload(), OutboxLibraryTest.TestEvent.class)).isEqualTo(event);
+
+        // When
+        outboxService.processPendingMessages();
+
+        // Then
+        var metrics = outboxManager.getMetrics();
+        assertThat(metrics.publishedCount()).isEqualTo(1);
+        assertThat(metrics.failedCount()).isEqualTo(1);
+    }
+}
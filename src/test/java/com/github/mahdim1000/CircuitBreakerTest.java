@@ -0,0 +1,163 @@
+package com.github.mahdim1000;
+
+import com.github.mahdim1000.core.OutboxManager;
+import com.github.mahdim1000.core.OutboxService;
+import com.github.mahdim1000.core.OutboxStatistics;
+import com.github.mahdim1000.core.PublisherCircuitBreaker;
+import com.github.mahdim1000.domain.OutboxEntity;
+import com.github.mahdim1000.domain.OutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A broker outage opens the circuit: claiming stops, sends made while it is open cost no
+ * retries, and a single probe closes it again once the broker is back. The failures that
+ * open it still count, so messages that fail on their own end up as dead letters.
+ */
+@SpringBootTest(classes = TestApplication.class)
+@TestPropertySource(properties = {
+    "outbox.publisher.type=in-memory",
+    "outbox.processing.enabled=false", // Drive processing manually
+    "outbox.publisher.circuit-breaker.failure-threshold=3",
+    "outbox.publisher.circuit-breaker.open-duration=PT1S",
+    "outbox.retry.max-retries=3",
+    "outbox.retry.initial-delay=PT0.2S",
+    "outbox.retry.multiplier=1.0",
+    "outbox.retry.jitter=none",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class CircuitBreakerTest {
+
+    @Autowired
+    private OutboxManager outboxManager;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRepository repository;
+
+    @Autowired
+    private InMemoryEventPublisher publisher;
+
+    @Autowired
+    private PublisherCircuitBreaker circuitBreaker;
+
+    @Autowired
+    private OutboxStatistics statistics;
+
+    @AfterEach
+    void cleanUp() {
+        publisher.setFailing(false);
+        publisher.setFailing("poison.topic", false);
+        repository.deleteAll();
+        statistics.reconcile(); // deleteAll bypasses the status counters
+    }
+
+    @Test
+    void shouldPauseDuringOutageWithoutSpendingRetries() throws InterruptedException {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            publish("breaker.topic", "agg-" + i);
+        }
+        long failed = publisher.getFailed();
+        long published = publisher.getPublished();
+        publisher.setFailing(true);
+
+        // When
+        assertThat(outboxService.processPendingMessages()).isEqualTo(5);
+
+        // Then - the sends that opened the circuit were made while it was closed and count
+        assertThat(circuitBreaker.isOpen("breaker.topic")).isTrue();
+        assertThat(publisher.getFailed() - failed).isEqualTo(5);
+        assertThat(repository.findAll()).allSatisfy(message -> {
+            assertThat(message.getInternalStatus()).isEqualTo(OutboxEntity.Status.FAILED);
+            assertThat(message.getRetryCount()).isEqualTo(1);
+        });
+
+        // When
+        List<String> queued = List.of("agg-5", "agg-6", "agg-7");
+        queued.forEach(aggregateId -> publish("breaker.topic", aggregateId));
+
+        // Then
+        assertThat(outboxService.processPendingMessages()).isZero();
+        assertThat(outboxService.processFailedMessages()).isZero();
+        assertThat(publisher.getFailed() - failed).isEqualTo(5);
+
+        // When - the probe goes out while the broker is still down
+        Thread.sleep(1100);
+        assertThat(outboxService.processPendingMessages()).isEqualTo(1);
+
+        // Then - it is put back without spending a retry
+        assertThat(publisher.getFailed() - failed).isEqualTo(6);
+        assertThat(circuitBreaker.isOpen("breaker.topic")).isTrue();
+        assertThat(messagesOf(queued)).allSatisfy(message -> {
+            assertThat(message.getInternalStatus()).isEqualTo(OutboxEntity.Status.PENDING);
+            assertThat(message.getRetryCount()).isZero();
+        }).anySatisfy(message -> assertThat(message.getNextRetryAt()).isAfter(LocalDateTime.now()));
+
+        // When
+        publisher.setFailing(false);
+        Thread.sleep(1100);
+        int probed = outboxService.processPendingMessages();
+
+        // Then
+        assertThat(probed).isEqualTo(1);
+        assertThat(publisher.getPublished() - published).isEqualTo(1);
+        assertThat(circuitBreaker.isOpen("breaker.topic")).isFalse();
+
+        // When
+        assertThat(outboxService.processPendingMessages()).isEqualTo(2);
+        assertThat(outboxService.processFailedMessages()).isEqualTo(5);
+
+        // Then
+        assertThat(repository.findAll()).allSatisfy(message ->
+            assertThat(message.getInternalStatus()).isEqualTo(OutboxEntity.Status.PUBLISHED));
+        assertThat(messagesOf(queued)).allSatisfy(message ->
+            assertThat(message.getRetryCount()).isZero());
+    }
+
+    @Test
+    void shouldDeadLetterMessagesThatKeepOpeningTheCircuit() throws InterruptedException {
+        // Given
+        List<String> poison = List.of("poison-0", "poison-1", "poison-2", "poison-3", "poison-4", "poison-5");
+        poison.forEach(aggregateId -> publish("poison.topic", aggregateId));
+        publisher.setFailing("poison.topic", true);
+
+        // When - healthy traffic keeps closing the circuit the poison messages open
+        long deadline = System.currentTimeMillis() + 20_000;
+        while (System.currentTimeMillis() < deadline && (circuitBreaker.isOpen("poison.topic")
+                || messagesOf(poison).stream().anyMatch(message ->
+                    message.getInternalStatus() != OutboxEntity.Status.DEAD_LETTER))) {
+            publish("healthy.topic", "healthy");
+            outboxService.processPendingMessages();
+            outboxService.processFailedMessages();
+            Thread.sleep(50);
+        }
+
+        // Then
+        assertThat(messagesOf(poison)).hasSize(6).allSatisfy(message -> {
+            assertThat(message.getInternalStatus()).isEqualTo(OutboxEntity.Status.DEAD_LETTER);
+            assertThat(message.getRetryCount()).isEqualTo(3);
+        });
+    }
+
+    private void publish(String topic, String aggregateId) {
+        outboxManager.publish(topic, aggregateId, new OutboxLibraryTest.TestEvent("event " + aggregateId, null))
+                     .execute();
+    }
+
+    private List<OutboxEntity> messagesOf(List<String> aggregateIds) {
+        return repository.findAll().stream()
+                         .filter(message -> aggregateIds.contains(message.getAggregateId()))
+                         .toList();
+    }
+}
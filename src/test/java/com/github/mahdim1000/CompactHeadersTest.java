@@ -0,0 +1,126 @@
+package com.github.mahdim1000;
+
+import com.github.mahdim1000.api.CompactHeaders;
+import com.github.mahdim1000.api.PayloadCodec;
+import com.github.mahdim1000.core.OutboxManager;
+import com.github.mahdim1000.core.OutboxService;
+import com.github.mahdim1000.core.OutboxStatistics;
+import com.github.mahdim1000.domain.OutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Headers are stored compactly, readable through the API and relayed with the payload headers.
+ */
+@SpringBootTest(classes = TestApplication.class)
+@TestPropertySource(properties = {
+    "outbox.publisher.type=in-memory",
+    "outbox.processing.enabled=false", // Drive processing manually
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class CompactHeadersTest {
+
+    @Autowired
+    private OutboxManager outboxManager;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRepository repository;
+
+    @Autowired
+    private InMemoryEventPublisher publisher;
+
+    @Autowired
+    private OutboxStatistics statistics;
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteAll();
+        statistics.reconcile(); // deleteAll bypasses the status counters
+    }
+
+    @Test
+    void shouldExposeAndRelayStoredHeaders() {
+        // Given
+        var headers = Map.of("eventType", "OrderCreated", "traceId", "trace-ü-42");
+        outboxManager.publish("headers.topic", "agg-headers", new OutboxLibraryTest.TestEvent("with headers", null))
+                     .withHeaders(headers)
+                     .execute();
+
+        // Then
+        var stored = repository.findAll().getFirst();
+        assertThat(stored.getHeaders()).isEqualTo(headers);
+
+        // When
+        outboxService.processPendingMessages();
+
+        // Then
+        var sent = publisher.getLastSent("headers.topic").headers();
+        assertThat(sent).containsAllEntriesOf(headers)
+                        .containsEntry(PayloadCodec.CONTENT_TYPE_HEADER, "application/json")
+                        .hasSize(3);
+    }
+
+    @Test
+    void shouldIgnoreHeadersWithoutValue() {
+        // Given
+        var headers = new HashMap<String, String>();
+        headers.put("eventType", "OrderCreated");
+        headers.put("traceId", null);
+
+        // When
+        outboxManager.publish("headers.topic", "agg-null-header", new OutboxLibraryTest.TestEvent("null header", null))
+                     .withHeaders(headers)
+                     .execute();
+
+        // Then
+        assertThat(repository.findAll().getFirst().getHeaders()).containsExactly(Map.entry("eventType", "OrderCreated"));
+        assertThatThrownBy(() -> CompactHeaders.encode(headers))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("traceId");
+    }
+
+    @Test
+    void shouldKeepEventHeadersOverPayloadDefaults() {
+        // Given
+        var headers = new LinkedHashMap<String, String>();
+        headers.put(PayloadCodec.CONTENT_TYPE_HEADER, "application/vnd.order+json");
+        headers.put("long", "x".repeat(300));
+
+        // When
+        var view = CompactHeaders.decode(CompactHeaders.encode(headers))
+            .withDefault(PayloadCodec.CONTENT_TYPE_HEADER, "application/json")
+            .withDefault("content-encoding", "gzip");
+
+        // Then
+        assertThat(view).containsExactly(
+            Map.entry(PayloadCodec.CONTENT_TYPE_HEADER, "application/vnd.order+json"),
+            Map.entry("long", "x".repeat(300)),
+            Map.entry("content-encoding", "gzip"));
+        var raw = new LinkedHashMap<String, String>();
+        view.forEachRaw((key, value) -> raw.put(key, new String(value, StandardCharsets.UTF_8)));
+        assertThat(raw).isEqualTo(view);
+    }
+
+    @Test
+    void shouldReadHeadersStoredAsJson() {
+        // When
+        var legacy = CompactHeaders.decode("{\"eventType\":\"OrderCreated\"}".getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        assertThat(legacy).containsExactly(Map.entry("eventType", "OrderCreated"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.mahdim1000;
+
+import com.github.mahdim1000.core.OutboxManager;
+import com.github.mahdim1000.core.OutboxService;
+import com.github.mahdim1000.core.OutboxStatistics;
+import com.github.mahdim1000.domain.OutboxEntity;
+import com.github.mahdim1000.domain.OutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dead letters are requeued in throttled chunks and relayed again in version order.
+ */
+@SpringBootTest(classes = TestApplication.class)
+@TestPropertySource(properties = {
+    "outbox.publisher.type=in-memory",
+    "outbox.processing.enabled=false", // Drive processing manually
+    "outbox.replay.chunk-size=2",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class DeadLetterReplayTest {
+
+    @Autowired
+    private OutboxManager outboxManager;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRepository repository;
+
+    @Autowired
+    private InMemoryEventPublisher publisher;
+
+    @Autowired
+    private OutboxStatistics statistics;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        publisher.setRejecting(false);
+        repository.deleteAll();
+        statistics.reconcile(); // deleteAll bypasses the status counters
+    }
+
+    @Test
+    void shouldRequeueMatchingDeadLettersAtConfiguredRate() throws Exception {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            outboxManager.publish("replay.a", "agg-" + i, new OutboxLibraryTest.TestEvent("event " + i, null))
+                         .execute();
+        }
+        outboxManager.publish("replay.b", "agg-b", new OutboxLibraryTest.TestEvent("other topic", null))
+                     .execute();
+        transactionTemplate.executeWithoutResult(tx -> {
+            outboxManager.publishOrdered("replay.a", "agg-ordered", new OutboxLibraryTest.TestEvent("v1", null))
+                         .execute();
+            outboxManager.publishOrdered("replay.a", "agg-ordered", new OutboxLibraryTest.TestEvent("v2", null))
+                         .execute();
+        });
+        publisher.setRejecting(true);
+        outboxService.processPendingMessages();
+        publisher.setRejecting(false);
+        assertThat(outboxManager.getMetrics().deadLetterCount()).isEqualTo(7);
+
+        // When
+        var replay = outboxManager.replayDeadLetters().topic("replay.a").rate(20).start();
+        var progress = replay.completion().get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(progress.finished()).isTrue();
+        assertThat(progress.requeued()).isEqualTo(6);
+        assertThat(progress.chunks()).isEqualTo(3);
+        assertThat(progress.elapsed()).isGreaterThanOrEqualTo(Duration.ofMillis(300));
+        assertThat(progress.rowsPerSecond()).isLessThanOrEqualTo(20.0);
+        assertThat(outboxManager.findReplay(replay.getId())).containsSame(replay);
+        var metrics = outboxManager.getMetrics();
+        assertThat(metrics.deadLetterCount()).isEqualTo(1);
+        assertThat(metrics.pendingCount()).isEqualTo(7);
+        assertThat(repository.findAll())
+            .filteredOn(message -> message.getTopic().equals("replay.a"))
+            .allSatisfy(message -> assertThat(message.getRetryCount()).isZero());
+
+        // When
+        assertThat(outboxService.processPendingMessages()).isEqualTo(6);
+        assertThat(outboxService.processPendingMessages()).isEqualTo(1);
+
+        // Then
+        var ordered = repository.findByAggregateIdOrderByVersionAsc("agg-ordered");
+        assertThat(ordered).allSatisfy(message ->
+            assertThat(message.getInternalStatus()).isEqualTo(OutboxEntity.Status.PUBLISHED));
+        assertThat(ordered.get(0).getPublishedAt()).isBeforeOrEqualTo(ordered.get(1).getPublishedAt());
+        assertThat(repository.findAll())
+            .filteredOn(message -> message.getTopic().equals("replay.b"))
+            .singleElement()
+            .satisfies(message -> assertThat(message.getInternalStatus()).isEqualTo(OutboxEntity.Status.DEAD_LETTER));
+    }
+}
@@ -0,0 +1,104 @@
+package com.github.mahdim1000;
+
+import com.github.mahdim1000.core.OutboxManager;
+import com.github.mahdim1000.core.OutboxStatistics;
+import com.github.mahdim1000.domain.OutboxEntity;
+import com.github.mahdim1000.domain.OutboxRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.github.mahdim1000.Await.awaitTrue;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Messages are published by the direct relay right after commit, long before the next poll.
+ */
+@RelayTest
+@TestPropertySource(properties = {
+    "outbox.publisher.type=logging",
+    "outbox.processing.enabled=true",
+    "outbox.processing.publish-rate=PT1H", // Only the startup poll runs during the test
+    "outbox.processing.retry-rate=PT1H",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class DirectHandoffTest {
+
+    @Autowired
+    private OutboxManager outboxManager;
+
+    @Autowired
+    private OutboxRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OutboxStatistics statistics;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteAll();
+        statistics.reconcile(); // deleteAll bypasses the status counters
+    }
+
+    @Test
+    void shouldPublishImmediatelyAfterCommit() {
+        // When
+        outboxManager.publish("test.topic", "handoff-agg", new OutboxLibraryTest.TestEvent("fast", null))
+                     .execute();
+
+        // Then
+        awaitTrue(() -> outboxManager.getMetrics().publishedCount() == 1);
+        OutboxEntity published = repository.findByAggregateId("handoff-agg").get(0);
+        assertThat(published.getClaimToken()).isNull();
+        assertThat(published.getLeaseUntil()).isNull();
+    }
+
+    @Test
+    void shouldNotHandOffRolledBackMessages() throws InterruptedException {
+        // When
+        transactionTemplate.executeWithoutResult(tx -> {
+            outboxManager.publish("test.topic", "rolled-back", new OutboxLibraryTest.TestEvent("gone", null))
+                         .execute();
+            tx.setRollbackOnly();
+        });
+        Thread.sleep(200);
+
+        // Then
+        assertThat(repository.findByAggregateId("rolled-back")).isEmpty();
+        assertThat(outboxManager.getMetrics().publishedCount()).isZero();
+    }
+
+    @Test
+    void shouldRelayCopiesOfEntitiesTheCallerStillManages() {
+        // Given - an EntityManager outliving the transaction, as with open-in-view
+        var entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            // When
+            transactionTemplate.executeWithoutResult(tx ->
+                outboxManager.publish("test.topic", "open-in-view", new OutboxLibraryTest.TestEvent("managed", null))
+                             .execute());
+            awaitTrue(() -> outboxManager.getMetrics().publishedCount() == 1);
+
+            // Then - the instance still managed by the caller was left alone by the relay thread
+            var managed = entityManager.createQuery(
+                    "SELECT o FROM OutboxEntity o WHERE o.aggregateId = 'open-in-view'", OutboxEntity.class)
+                .getSingleResult();
+            assertThat(managed.getInternalStatus()).isEqualTo(OutboxEntity.Status.PENDING);
+            assertThat(managed.getClaimToken()).isNotNull();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.mahdim1000;
+
+import com.github.mahdim1000.api.EventPublisher;
+import com.github.mahdim1000.api.PublishRequest;
+import com.github.mahdim1000.api.PublishingException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Broker stand-in that counts messages and keeps the last one per topic.
+ * Acknowledges each send after {@code outbox.in-memory.latency} without blocking the caller,
+ * and fails a {@code outbox.in-memory.failure-rate} share of them, or all of them during a simulated outage.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.publisher.type", havingValue = "in-memory")
+public class InMemoryEventPublisher implements EventPublisher {
+
+    private final Duration latency;
+    private final double failureRate;
+    private final ScheduledExecutorService acknowledger = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("in-memory-broker").daemon().factory());
+    private final LongAdder published = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final Map<String, PublishRequest> lastSent = new ConcurrentHashMap<>();
+    private final LongAdder healthChecks = new LongAdder();
+    private volatile boolean healthy = true;
+    private volatile boolean failing;
+    private final Set<String> failingTopics = ConcurrentHashMap.newKeySet();
+    private volatile boolean rejecting;
+
+    public InMemoryEventPublisher(@Value("${outbox.in-memory.latency:PT0S}") Duration latency,
+                                  @Value("${outbox.in-memory.failure-rate:0}") double failureRate) {
+        this.latency = latency;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public void publish(String topic, byte[] payload) throws PublishingException {
+        publish(topic, payload, Map.of());
+    }
+
+    @Override
+    public void publish(String topic, byte[] payload, Map<String, String> headers) throws PublishingException {
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PublishingException("Interrupted while publishing to " + topic, e);
+        }
+        if (shouldFail(topic)) {
+            failed.increment();
+            throw new PublishingException("Simulated broker failure for " + topic);
+        }
+        published.increment();
+        lastSent.put(topic, new PublishRequest(null, topic, null, payload, headers));
+    }
+
+    @Override
+    public CompletableFuture<Void> publishAsync(PublishRequest request) {
+        var result = new CompletableFuture<Void>();
+        if (latency.isZero()) {
+            acknowledge(request, result);
+        } else {
+            acknowledger.schedule(() -> acknowledge(request, result), latency.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return result;
+    }
+
+    private void acknowledge(PublishRequest request, CompletableFuture<Void> result) {
+        if (rejecting) {
+            failed.increment();
+            result.completeExceptionally(
+                new PublishingException("Simulated rejection of " + request.topic(), null, false));
+        } else if (shouldFail(request.topic())) {
+            failed.increment();
+            result.completeExceptionally(new PublishingException("Simulated broker failure for " + request.topic()));
+        } else {
+            published.increment();
+            lastSent.put(request.topic(), request);
+            result.complete(null);
+        }
+    }
+
+    private boolean shouldFail(String topic) {
+        return failing || failingTopics.contains(topic) || failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate;
+    }
+
+    public long getPublished() { return published.sum(); }
+    public long getFailed() { return failed.sum(); }
+
+    /** The last message acknowledged for a topic, or null. */
+    public PublishRequest getLastSent(String topic) { return lastSent.get(topic); }
+    public long getHealthChecks() { return healthChecks.sum(); }
+
+    /** Simulates the broker going away or coming back. */
+    public void setHealthy(boolean healthy) { this.healthy = healthy; }
+
+    /** Simulates an outage in which every send fails. */
+    public void setFailing(boolean failing) { this.failing = failing; }
+
+    /** Simulates sends to a single topic failing, e.g. because its messages are poison. */
+    public void setFailing(String topic, boolean failing) {
+        if (failing) {
+            failingTopics.add(topic);
+        } else {
+            failingTopics.remove(topic);
+        }
+    }
+
+    /** Simulates the broker rejecting every send as permanently unpublishable. */
+    public void setRejecting(boolean rejecting) { this.rejecting = rejecting; }
+
+    @PreDestroy
+    public void shutdown() {
+        acknowledger.shutdownNow();
+    }
+
+    @Override
+    public boolean isHealthy() {
+        healthChecks.increment();
+        return healthy;
+    }
+
+    @Override
+    public String getType() {
+        return "in-memory";
+    }
+}
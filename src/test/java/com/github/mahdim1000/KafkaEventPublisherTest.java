@@ -0,0 +1,88 @@
+package com.github.mahdim1000;
+
+import com.github.mahdim1000.api.CompactHeaders;
+import com.github.mahdim1000.api.PublishRequest;
+import com.github.mahdim1000.api.PublishingException;
+import com.github.mahdim1000.config.OutboxProperties;
+import com.github.mahdim1000.publisher.KafkaEventPublisher;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Records are keyed as configured, carry the event id and fail once the timeout passes.
+ */
+class KafkaEventPublisherTest {
+
+    private static final PublishRequest REQUEST = new PublishRequest("01JEVENT", "orders", "order-42",
+        "{}".getBytes(StandardCharsets.UTF_8),
+        CompactHeaders.decode(CompactHeaders.encode(Map.of("eventType", "OrderCreated"))));
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, byte[]> kafkaTemplate = mock(KafkaTemplate.class);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldKeyRecordsByAggregateAndCarryEventId() {
+        // Given
+        var publisher = publisher(null, Duration.ofSeconds(5));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+            .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class, Answers.RETURNS_DEEP_STUBS)));
+
+        // When
+        publisher.publishAsync(REQUEST).join();
+
+        // Then
+        ArgumentCaptor<ProducerRecord<String, byte[]>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(sent.capture());
+        var record = sent.getValue();
+        assertThat(record.key()).isEqualTo("order-42");
+        assertThat(record.headers().lastHeader("event-id").value())
+            .isEqualTo("01JEVENT".getBytes(StandardCharsets.UTF_8));
+        assertThat(record.headers().lastHeader("eventType").value())
+            .isEqualTo("OrderCreated".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFailSendsNotAcknowledgedWithinTimeout() {
+        // Given
+        var publisher = publisher(OutboxProperties.RecordKey.EVENT_ID, Duration.ofMillis(50));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(new CompletableFuture<>());
+
+        // When
+        var result = publisher.publishAsync(REQUEST);
+
+        // Then
+        assertThat(result).failsWithin(Duration.ofSeconds(5))
+            .withThrowableOfType(ExecutionException.class)
+            .withCauseInstanceOf(PublishingException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private KafkaEventPublisher publisher(OutboxProperties.RecordKey key, Duration timeout) {
+        ProducerFactory<String, byte[]> producerFactory = mock(ProducerFactory.class);
+        when(producerFactory.getConfigurationProperties()).thenReturn(Map.of());
+        when(kafkaTemplate.getProducerFactory()).thenReturn(producerFactory);
+        var properties = new OutboxProperties(null, null,
+            new OutboxProperties.Publisher("kafka", null, timeout, new OutboxProperties.Kafka(key, null), null),
+            null, null, null, null, null, null, null);
+        return new KafkaEventPublisher(kafkaTemplate, properties);
+    }
+}
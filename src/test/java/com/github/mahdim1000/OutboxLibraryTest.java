@@ -1,15 +1,29 @@
 package com.github.mahdim1000;
 
 import com.github.mahdim1000.core.OutboxManager;
+import com.github.mahdim1000.core.OutboxStatistics;
 import com.github.mahdim1000.api.OutboxMetrics;
+import com.github.mahdim1000.domain.OutboxEntity;
+import com.github.mahdim1000.domain.OutboxRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -21,13 +35,26 @@ import static org.assertj.core.api.Assertions.assertThat;
 @TestPropertySource(properties = {
     "outbox.publisher.type=logging",
     "outbox.processing.enabled=false", // Disable automatic processing for tests
-    "spring.jpa.hibernate.ddl-auto=create-drop"
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
 })
 class OutboxLibraryTest {
 
     @Autowired
     private OutboxManager outboxManager;
 
+    @Autowired
+    private OutboxRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OutboxStatistics statistics;
+
     @Test
     @Transactional
     void shouldPublishUnorderedMessage() {
@@ -96,6 +123,109 @@ class OutboxLibraryTest {
         assertThat(metrics.pendingCount()).isEqualTo(5);
     }
 
+    @Test
+    @Transactional
+    void shouldPublishBatchOfEvents() {
+        // Given
+        List<TestEvent> events = List.of(
+            new TestEvent("first", LocalDateTime.now()),
+            new TestEvent("second", LocalDateTime.now()),
+            new TestEvent("third", LocalDateTime.now()));
+
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        outboxManager.publishAllOrdered("batch.topic", List.of(events.getFirst()), event -> "single-aggregate")
+                     .execute();
+        long singleEventStatements = statistics.getPrepareStatementCount();
+        repository.flush();
+        statistics.clear();
+
+        // When
+        int written = outboxManager.publishAllOrdered("batch.topic", events, event -> "batch-aggregate")
+                                   .withHeader("eventType", "Imported")
+                                   .execute();
+
+        // Then
+        assertThat(written).isEqualTo(3);
+        // persist() defers the inserts to the flush; merge() would first select each assigned id
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(singleEventStatements);
+        assertThat(outboxManager.getMetrics().pendingCount()).isEqualTo(4);
+        var stored = repository.findByAggregateIdOrderByVersionAsc("batch-aggregate");
+        assertThat(stored).extracting(OutboxEntity::getVersion).containsExactly(1, 2, 3);
+        assertThat(stored).extracting(OutboxEntity::isReady).containsExactly(true, false, false);
+        assertThat(stored).allSatisfy(message ->
+            assertThat(message.getHeaders()).containsExactly(Map.entry("eventType", "Imported")));
+    }
+
+    @Test
+    @Transactional
+    void shouldAssignConsecutiveVersionsToOrderedEvents() {
+        // Given
+        String aggregateId = "versioned-" + System.nanoTime();
+
+        // When - single ordered events followed by a batch for the same aggregate
+        outboxManager.publishOrdered("order.events", aggregateId, new TestEvent("v1", LocalDateTime.now())).execute();
+        outboxManager.publishOrdered("order.events", aggregateId, new TestEvent("v2", LocalDateTime.now())).execute();
+        outboxManager.batch()
+                     .addOrdered("order.events", aggregateId, new TestEvent("v3", LocalDateTime.now()))
+                     .addOrdered("order.events", aggregateId, new TestEvent("v4", LocalDateTime.now()))
+                     .execute();
+
+        // Then
+        assertThat(repository.findByAggregateIdOrderByVersionAsc(aggregateId))
+            .extracting(OutboxEntity::getVersion)
+            .containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    void shouldSeedSequencesOfNewAggregatesConcurrently() throws Exception {
+        // Given
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        List<String> aggregateIds = List.of("seeded-a-" + System.nanoTime(), "seeded-b-" + System.nanoTime());
+        var bothSeeded = new CyclicBarrier(aggregateIds.size());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // When - both first writers hold their open transactions until the other has seeded too
+            CompletableFuture.allOf(aggregateIds.stream()
+                .map(aggregateId -> CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(tx -> {
+                    outboxManager.publishOrdered("order.events", aggregateId, new TestEvent("v1", null)).execute();
+                    await(bothSeeded);
+                }), executor))
+                .toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+            // ... and more writers of the same aggregates follow at once
+            CompletableFuture.allOf(aggregateIds.stream()
+                .flatMap(aggregateId -> Stream.of(aggregateId, aggregateId))
+                .map(aggregateId -> CompletableFuture.runAsync(() ->
+                    outboxManager.publishOrdered("order.events", aggregateId, new TestEvent("next", null)).execute(),
+                    executor))
+                .toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        try {
+            for (String aggregateId : aggregateIds) {
+                var stored = repository.findByAggregateIdOrderByVersionAsc(aggregateId);
+                assertThat(stored).extracting(OutboxEntity::getVersion).containsExactly(1, 2, 3);
+                assertThat(stored).extracting(OutboxEntity::isReady).containsExactly(true, false, false);
+            }
+        } finally {
+            repository.deleteAll(); // Committed outside a test transaction
+            statistics.reconcile();
+        }
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     // Test event record
     public record TestEvent(String message, LocalDateTime timestamp) {}
 }
@@ -0,0 +1,272 @@
+package com.github.mahdim1000;
+
+import com.github.mahdim1000.api.OutboxMetrics;
+import com.github.mahdim1000.config.OutboxProperties;
+import com.github.mahdim1000.core.OutboxManager;
+import com.github.mahdim1000.core.OutboxStatistics;
+import com.github.mahdim1000.core.OutboxService;
+import com.github.mahdim1000.core.RetentionPurger;
+import com.github.mahdim1000.domain.OutboxEntity;
+import com.github.mahdim1000.domain.OutboxRepository;
+import com.github.mahdim1000.domain.StatusCountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test for the relay side of the library.
+ * Messages are committed first and then drained by invoking the service directly.
+ */
+@SpringBootTest(classes = TestApplication.class)
+@TestPropertySource(properties = {
+    "outbox.publisher.type=logging",
+    "outbox.processing.enabled=false", // Drive processing manually
+    "outbox.processing.lanes=4",
+    "outbox.retention.enabled=true",
+    "outbox.retention.published-ttl=PT0.05S",
+    "outbox.retention.chunk-size=2",
+    "outbox.retention.chunk-pause=PT0S",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class OutboxProcessingTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OutboxManager outboxManager;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRepository repository;
+
+    @Autowired
+    private OutboxProperties properties;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RetentionPurger retentionPurger;
+
+    @Autowired
+    private StatusCountRepository statusCountRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private OutboxStatistics statistics;
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteAll();
+        statistics.reconcile(); // deleteAll bypasses the status counters
+    }
+
+    @Test
+    void shouldPublishPendingMessagesAndRecordClaimOwner() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            outboxManager.publish("test.topic", "agg-" + i, new OutboxLibraryTest.TestEvent("message " + i, null))
+                         .execute();
+        }
+
+        // When
+        outboxService.processPendingMessages();
+
+        // Then
+        OutboxMetrics metrics = outboxManager.getMetrics();
+        assertThat(metrics.publishedCount()).isEqualTo(3);
+        assertThat(metrics.pendingCount()).isEqualTo(0);
+        assertThat(repository.findAll())
+            .allSatisfy(entity -> {
+                assertThat(entity.getClaimedBy()).isEqualTo(properties.processing().nodeId());
+                assertThat(entity.getLeaseUntil()).isNull();
+            });
+    }
+
+    @Test
+    void shouldReleaseLeaseWhenPublishingFails() {
+        // Given
+        outboxManager.publish("test.topic", "agg-fail", new OutboxLibraryTest.TestEvent("FAIL_TEST", null))
+                     .execute();
+
+        // When
+        outboxService.processPendingMessages();
+
+        // Then
+        OutboxEntity failed = repository.findByAggregateId("agg-fail").get(0);
+        assertThat(failed.getInternalStatus()).isEqualTo(OutboxEntity.Status.FAILED);
+        assertThat(failed.getRetryCount()).isEqualTo(1);
+        assertThat(failed.getLeaseUntil()).isNull();
+    }
+
+    @Test
+    void shouldSkipLiveLeasesAndReclaimExpiredOnes() {
+        // Given - a message claimed by another node
+        outboxManager.publish("test.topic", "agg-leased", new OutboxLibraryTest.TestEvent("leased", null))
+                     .execute();
+        String id = repository.findByAggregateId("agg-leased").get(0).getId();
+        claimByOtherNode(id, LocalDateTime.now().plusMinutes(5));
+
+        // When - the lease is live
+        outboxService.processPendingMessages();
+
+        // Then
+        assertThat(outboxManager.getMetrics().pendingCount()).isEqualTo(1);
+
+        // When - the other node crashed and its lease lapsed
+        claimByOtherNode(id, LocalDateTime.now().minusSeconds(1));
+        outboxService.processPendingMessages();
+
+        // Then
+        OutboxEntity published = repository.findById(id).orElseThrow();
+        assertThat(published.getInternalStatus()).isEqualTo(OutboxEntity.Status.PUBLISHED);
+        assertThat(published.getClaimedBy()).isEqualTo(properties.processing().nodeId());
+    }
+
+    @Test
+    void shouldRelayOrderedEventsOneVersionAtATime() {
+        // Given
+        String aggregateId = "ordered-" + System.nanoTime();
+        outboxManager.publishOrdered("order.events", aggregateId, new OutboxLibraryTest.TestEvent("v1", null)).execute();
+        outboxManager.publishOrdered("order.events", aggregateId, new OutboxLibraryTest.TestEvent("v2", null)).execute();
+
+        // When
+        outboxService.processPendingMessages();
+
+        // Then - only the head version was eligible
+        assertThat(repository.findByAggregateIdOrderByVersionAsc(aggregateId))
+            .extracting(OutboxEntity::getInternalStatus)
+            .containsExactly(OutboxEntity.Status.PUBLISHED, OutboxEntity.Status.PENDING);
+
+        // When - publishing v1 made v2 ready
+        outboxService.processPendingMessages();
+
+        // Then
+        assertThat(repository.findByAggregateIdOrderByVersionAsc(aggregateId))
+            .extracting(OutboxEntity::getInternalStatus)
+            .containsExactly(OutboxEntity.Status.PUBLISHED, OutboxEntity.Status.PUBLISHED);
+    }
+
+    @Test
+    void shouldOnlyRelayAggregatesOfTheGivenLane() {
+        // Given
+        int lanes = properties.processing().lanes();
+        for (int i = 0; i < 20; i++) {
+            outboxManager.publish("test.topic", "lane-agg-" + i, new OutboxLibraryTest.TestEvent("message " + i, null))
+                         .execute();
+        }
+
+        // When
+        outboxService.processPendingMessages(1);
+
+        // Then
+        assertThat(repository.findAll())
+            .allSatisfy(entity -> assertThat(entity.getInternalStatus())
+                .isEqualTo(entity.getPartitionKey() % lanes == 1
+                    ? OutboxEntity.Status.PUBLISHED
+                    : OutboxEntity.Status.PENDING));
+        assertThat(outboxManager.getMetrics().publishedCount()).isPositive();
+    }
+
+    @Test
+    void shouldCreateClaimIndexWithGeneratedSchema() {
+        // When
+        List<String> columns = jdbcTemplate.queryForList("""
+            SELECT c.COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS c
+            WHERE c.INDEX_NAME = 'IDX_OUTBOX_CLAIM' ORDER BY c.ORDINAL_POSITION
+            """, String.class);
+
+        // Then
+        assertThat(columns).containsExactly("STATUS", "READY", "NEXT_RETRY_AT", "PARTITION_KEY");
+    }
+
+    @Test
+    void shouldPurgeExpiredPublishedRowsInChunks() throws InterruptedException {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            outboxManager.publish("test.topic", "purge-" + i, new OutboxLibraryTest.TestEvent("message " + i, null))
+                         .execute();
+        }
+        outboxManager.publish("test.topic", "purge-fail", new OutboxLibraryTest.TestEvent("FAIL_TEST", null))
+                     .execute();
+        outboxService.processPendingMessages();
+        Thread.sleep(100); // Let the published rows expire
+
+        // When
+        var reports = retentionPurger.purge();
+
+        // Then
+        assertThat(reports).singleElement()
+            .satisfies(report -> assertThat(report.purged()).isEqualTo(5));
+        assertThat(repository.findAll())
+            .extracting(OutboxEntity::getAggregateId)
+            .containsExactly("purge-fail");
+    }
+
+    @Test
+    void shouldKeepStatusCountersInStepWithTable() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            outboxManager.publish("test.topic", "stats-" + i, new OutboxLibraryTest.TestEvent("message " + i, null))
+                         .execute();
+        }
+        outboxManager.publish("test.topic", "stats-fail", new OutboxLibraryTest.TestEvent("FAIL_TEST", null))
+                     .execute();
+
+        // When
+        outboxService.processPendingMessages();
+        statistics.flush();
+
+        // Then - served from memory, matching an exact count
+        OutboxMetrics metrics = outboxManager.getMetrics();
+        assertThat(metrics.publishedCount()).isEqualTo(repository.countByStatus(OutboxEntity.Status.PUBLISHED));
+        assertThat(metrics.failedCount()).isEqualTo(repository.countFailedMessages());
+        assertThat(metrics.pendingCount()).isEqualTo(repository.countPendingMessages()).isZero();
+        assertThat(statusCountRepository.findCounters())
+            .filteredOn(counter -> counter.getStatus() == OutboxEntity.Status.PUBLISHED)
+            .singleElement()
+            .satisfies(counter -> assertThat(counter.getEventCount()).isEqualTo(3));
+    }
+
+    @Test
+    void shouldRecordRelayMetrics() {
+        // Given
+        outboxManager.publish("metrics.topic", "metrics-ok", new OutboxLibraryTest.TestEvent("ok", null)).execute();
+        outboxManager.publish("metrics.topic", "metrics-fail", new OutboxLibraryTest.TestEvent("FAIL_TEST", null))
+                     .execute();
+
+        // When
+        outboxService.processPendingMessages();
+
+        // Then
+        assertThat(meterRegistry.get("outbox.publish").tags("topic", "metrics.topic", "publisher", "logging",
+            "outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("outbox.publish").tags("topic", "metrics.topic", "outcome", "failure")
+            .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("outbox.lag").tag("topic", "metrics.topic").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("outbox.retries").tag("topic", "metrics.topic").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("outbox.claim").tag("status", "pending").timer().count()).isPositive();
+        assertThat(meterRegistry.get("outbox.insert").timer().count()).isPositive();
+        assertThat(meterRegistry.get("outbox.ack.flush").timer().count()).isPositive();
+    }
+
+    private void claimByOtherNode(String id, LocalDateTime leaseUntil) {
+        transactionTemplate.executeWithoutResult(tx ->
+            repository.claim(List.of(id), "other-node", "other-token", leaseUntil));
+    }
+}
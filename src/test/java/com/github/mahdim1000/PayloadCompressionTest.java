@@ -0,0 +1,99 @@
+package com.github.mahdim1000;
+
+import com.github.mahdim1000.api.PayloadCompressor;
+import com.github.mahdim1000.core.JdkPayloadCompressor;
+import com.github.mahdim1000.core.OutboxManager;
+import com.github.mahdim1000.core.OutboxService;
+import com.github.mahdim1000.core.OutboxStatistics;
+import com.github.mahdim1000.domain.OutboxEntity;
+import com.github.mahdim1000.domain.OutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Large payloads are stored compressed and reach each topic as configured.
+ */
+@SpringBootTest(classes = TestApplication.class)
+@TestPropertySource(properties = {
+    "outbox.publisher.type=in-memory",
+    "outbox.processing.enabled=false", // Drive processing manually
+    "outbox.payload.compression.enabled=true",
+    "outbox.payload.compression.threshold=1KB",
+    "outbox.payload.compression.topics[documents.forwarded]=forward",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class PayloadCompressionTest {
+
+    private static final OutboxLibraryTest.TestEvent DOCUMENT =
+        new OutboxLibraryTest.TestEvent("line of a large document ".repeat(400), null);
+
+    @Autowired
+    private OutboxManager outboxManager;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRepository repository;
+
+    @Autowired
+    private InMemoryEventPublisher publisher;
+
+    @Autowired
+    private OutboxStatistics statistics;
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteAll();
+        statistics.reconcile(); // deleteAll bypasses the status counters
+    }
+
+    @Test
+    void shouldCompressLargePayloadsOnly() {
+        // When
+        outboxManager.publish("documents.small", "doc-small", new OutboxLibraryTest.TestEvent("small", null)).execute();
+        outboxManager.publish("documents.decompressed", "doc-large", DOCUMENT).execute();
+
+        // Then
+        assertThat(stored("doc-small").getContentEncoding()).isNull();
+        var large = stored("doc-large");
+        assertThat(large.getContentEncoding()).isEqualTo("gzip");
+        assertThat(large.getPayload().length).isLessThan(DOCUMENT.message().length() / 10);
+    }
+
+    @Test
+    void shouldDeliverDecompressedOrForwardedPerTopic() throws Exception {
+        // Given
+        outboxManager.publish("documents.decompressed", "doc-1", DOCUMENT).execute();
+        outboxManager.publish("documents.forwarded", "doc-2", DOCUMENT).execute();
+        byte[] forwardedStored = stored("doc-2").getPayload();
+
+        // When
+        outboxService.processPendingMessages();
+
+        // Then
+        var decompressed = publisher.getLastSent("documents.decompressed");
+        assertThat(new String(decompressed.payload(), StandardCharsets.UTF_8)).contains(DOCUMENT.message());
+        assertThat(decompressed.headers()).doesNotContainKey(PayloadCompressor.CONTENT_ENCODING_HEADER);
+
+        var forwarded = publisher.getLastSent("documents.forwarded");
+        assertThat(forwarded.payload()).isEqualTo(forwardedStored);
+        assertThat(forwarded.headers()).containsEntry(PayloadCompressor.CONTENT_ENCODING_HEADER, "gzip");
+        assertThat(new String(JdkPayloadCompressor.GZIP.decompress(forwarded.payload()), StandardCharsets.UTF_8))
+            .contains(DOCUMENT.message());
+        assertThat(outboxManager.getMetrics().publishedCount()).isEqualTo(2);
+    }
+
+    private OutboxEntity stored(String aggregateId) {
+        return repository.findAll().stream()
+            .filter(message -> message.getAggregateId().equals(aggregateId))
+            .findFirst().orElseThrow();
+    }
+}
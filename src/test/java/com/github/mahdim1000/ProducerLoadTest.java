@@ -0,0 +1,231 @@
+package com.github.mahdim1000;
+
+import com.github.mahdim1000.core.OutboxManager;
+import com.github.mahdim1000.domain.OutboxEntity;
+import com.github.mahdim1000.domain.OutboxRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load generator for the producer write path, relaying through {@link InMemoryEventPublisher}.
+ *
+ * Excluded from the regular build; run with {@code mvn -Pload-test test} or {@code ./gradlew loadTest}.
+ * Tune it with system properties, e.g. {@code -Dload.producers=16 -Dload.payload-bytes=4096
+ * -Dload.ordered-ratio=0.2 -Dload.publisher.latency=PT0.005S -Dload.publisher.failure-rate=0.01}.
+ */
+@Tag("load")
+@RelayTest
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:loaddb;LOCK_TIMEOUT=10000",
+    "spring.datasource.hikari.maximum-pool-size=${load.pool-size:40}",
+    "outbox.publisher.type=in-memory",
+    "outbox.in-memory.latency=${load.publisher.latency:PT0.001S}",
+    "outbox.in-memory.failure-rate=${load.publisher.failure-rate:0}",
+    "outbox.processing.enabled=true",
+    "outbox.processing.batch-size=${load.batch-size:200}",
+    "outbox.processing.lanes=${load.lanes:4}",
+    "outbox.processing.retry-rate=PT0.5S",
+    "outbox.retry.max-retries=10",
+    "outbox.retry.initial-delay=PT0.1S",
+    "outbox.polling.min-interval=PT0.01S",
+    "logging.level.com.github.mahdim1000=WARN",
+    "logging.level.org.springframework.transaction=WARN",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class ProducerLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ProducerLoadTest.class);
+
+    @Autowired
+    private OutboxManager outboxManager;
+
+    @Autowired
+    private OutboxRepository repository;
+
+    @Autowired
+    private InMemoryEventPublisher publisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${load.producers:8}")
+    private int producers;
+
+    @Value("${load.messages-per-producer:2000}")
+    private int messagesPerProducer;
+
+    @Value("${load.payload-bytes:512}")
+    private int payloadBytes;
+
+    @Value("${load.ordered-ratio:0.5}")
+    private double orderedRatio;
+
+    @Value("${load.aggregates:200}")
+    private int aggregates;
+
+    @Value("${load.drain-timeout:PT5M}")
+    private Duration drainTimeout;
+
+    @Test
+    void shouldSustainConcurrentProducers() throws Exception {
+        int total = producers * messagesPerProducer;
+        var payload = new LoadEvent("x".repeat(payloadBytes));
+        var sampler = new LockWaitSampler();
+        var failures = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        long[][] latencies = new long[producers][messagesPerProducer];
+
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        List<Future<?>> running = new ArrayList<>(producers);
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            running.add(pool.submit(() -> {
+                start.await();
+                produce(producer, payload, latencies[producer], failures);
+                return null;
+            }));
+        }
+
+        sampler.start();
+        long started = System.nanoTime();
+        start.countDown();
+        for (var future : running) {
+            future.get();
+        }
+        long produced = System.nanoTime() - started;
+        pool.shutdown();
+
+        boolean drained = awaitDrained(total);
+        long relayed = System.nanoTime() - started;
+        sampler.stop();
+
+        long[] sorted = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        log.warn("""
+
+            Producer load: {} producers x {} messages, {} B payload, {}% ordered over {} aggregates
+              inserts/s        {}
+              execute() p50    {} us
+              execute() p99    {} us
+              execute() max    {} us
+              failed executes  {}
+              lock waits       {} of {} samples, at most {} sessions blocked
+              relayed/s        {} ({} published, {} broker failures, drained: {})
+            """,
+            producers, messagesPerProducer, payloadBytes, Math.round(orderedRatio * 100), aggregates,
+            Math.round(total / seconds(produced)),
+            micros(percentile(sorted, 0.50)), micros(percentile(sorted, 0.99)), micros(sorted[sorted.length - 1]),
+            failures.get(),
+            sampler.blockedSamples.get(), sampler.samples.get(), sampler.maxBlocked.get(),
+            Math.round(total / seconds(relayed)), publisher.getPublished(), publisher.getFailed(), drained);
+
+        assertThat(failures.get()).isZero();
+        assertThat(repository.count()).isEqualTo(total);
+        assertThat(drained).isTrue();
+    }
+
+    private void produce(int producer, LoadEvent payload, long[] latencies, AtomicInteger failures) {
+        var random = ThreadLocalRandom.current();
+        for (int i = 0; i < latencies.length; i++) {
+            boolean ordered = random.nextDouble() < orderedRatio;
+            long started = System.nanoTime();
+            try {
+                if (ordered) {
+                    outboxManager.publishOrdered("load.ordered", "aggregate-" + random.nextInt(aggregates), payload)
+                                 .execute();
+                } else {
+                    outboxManager.publish("load.unordered", "producer-" + producer + "-" + i, payload)
+                                 .execute();
+                }
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+                log.warn("Producer {} failed to publish: {}", producer, e.getMessage());
+            }
+            latencies[i] = System.nanoTime() - started;
+        }
+    }
+
+    private boolean awaitDrained(int total) throws InterruptedException {
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            long done = repository.countByStatus(OutboxEntity.Status.PUBLISHED)
+                + repository.countByStatus(OutboxEntity.Status.DEAD_LETTER);
+            if (done >= total) {
+                return true;
+            }
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        return false;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    /**
+     * Samples H2 sessions waiting on a lock held by another session.
+     */
+    private class LockWaitSampler {
+
+        private final AtomicBoolean running = new AtomicBoolean(true);
+        private final AtomicLong samples = new AtomicLong();
+        private final AtomicLong blockedSamples = new AtomicLong();
+        private final AtomicLong maxBlocked = new AtomicLong();
+        private Thread thread;
+
+        void start() {
+            thread = Thread.ofPlatform().name("lock-wait-sampler").daemon().start(() -> {
+                while (running.get()) {
+                    Long blocked = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE BLOCKER_ID IS NOT NULL", Long.class);
+                    samples.incrementAndGet();
+                    if (blocked != null && blocked > 0) {
+                        blockedSamples.incrementAndGet();
+                        maxBlocked.accumulateAndGet(blocked, Math::max);
+                    }
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(5);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+        }
+
+        void stop() throws InterruptedException {
+            running.set(false);
+            thread.join();
+        }
+    }
+
+    public record LoadEvent(String data) {}
+}
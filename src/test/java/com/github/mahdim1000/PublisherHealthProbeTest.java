@@ -0,0 +1,69 @@
+package com.github.mahdim1000;
+
+import com.github.mahdim1000.core.OutboxManager;
+import com.github.mahdim1000.core.PublisherHealthProbe;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import static com.github.mahdim1000.Await.awaitTrue;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Publisher health is probed in the background and only read by callers.
+ */
+@SpringBootTest(classes = TestApplication.class)
+@TestPropertySource(properties = {
+    "outbox.publisher.type=in-memory",
+    "outbox.processing.enabled=false",
+    "outbox.monitoring.health-interval=PT1H", // Only the initial probe runs on its own
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class PublisherHealthProbeTest {
+
+    @Autowired
+    private OutboxManager outboxManager;
+
+    @Autowired
+    private PublisherHealthProbe healthProbe;
+
+    @Autowired
+    private InMemoryEventPublisher publisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void restore() {
+        publisher.setHealthy(true);
+        healthProbe.probe();
+    }
+
+    @Test
+    void shouldServeCachedHealthUntilNextProbe() {
+        // Given
+        awaitTrue(() -> healthProbe.getHealth().checkedAt() != null);
+        long checks = publisher.getHealthChecks();
+        publisher.setHealthy(false);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            assertThat(outboxManager.isHealthy()).isTrue();
+        }
+
+        // Then
+        assertThat(publisher.getHealthChecks()).isEqualTo(checks);
+
+        // When
+        healthProbe.probe();
+
+        // Then
+        assertThat(outboxManager.isHealthy()).isFalse();
+        assertThat(healthProbe.getHealth().healthy()).isFalse();
+        assertThat(meterRegistry.get("outbox.health.probe")
+            .tag("publisher", "in-memory").tag("outcome", "unhealthy").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.mahdim1000;
+
+import com.github.mahdim1000.api.PublishRequest;
+import com.github.mahdim1000.api.PublishingException;
+import com.github.mahdim1000.config.OutboxProperties;
+import com.github.mahdim1000.publisher.RabbitMQEventPublisher;
+import com.rabbitmq.client.ConfirmCallback;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpIOException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A batch is sent on one channel, and a nack fails only the message it names.
+ */
+class RabbitMQEventPublisherTest {
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final RabbitOperations channel = mock(RabbitOperations.class);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFailOnlyNackedMessagesOfBatch() throws Exception {
+        // Given
+        var connectionFactory = mock(ConnectionFactory.class);
+        when(connectionFactory.isSimplePublisherConfirms()).thenReturn(true);
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        var publisher = new RabbitMQEventPublisher(rabbitTemplate, new OutboxProperties(
+            null, null, null, null, null, null, null, null, null, null));
+
+        when(channel.execute(any())).thenReturn(41L);
+        when(rabbitTemplate.invoke(any(), any(), any())).thenAnswer(invocation -> {
+            ConfirmCallback acks = invocation.getArgument(1);
+            ConfirmCallback nacks = invocation.getArgument(2);
+            doAnswer(wait -> {
+                acks.handle(41, false);
+                nacks.handle(42, false);
+                acks.handle(43, true);
+                throw new AmqpIOException(new IOException("nacks received"));
+            }).when(channel).waitForConfirmsOrDie(anyLong());
+            return invocation.<RabbitOperations.OperationsCallback<Object>>getArgument(0).doInRabbit(channel);
+        });
+
+        // When
+        var results = publisher.publishBatch(List.of(request("evt-1"), request("evt-2"), request("evt-3")));
+
+        // Then
+        verify(channel, times(3)).send(anyString(), any(Message.class));
+        assertThat(results.get(0)).isCompleted();
+        assertThat(results.get(1)).isCompletedExceptionally();
+        assertThat(results.get(1).exceptionNow()).isInstanceOf(PublishingException.class).hasMessageContaining("nack");
+        assertThat(results.get(2)).isCompleted();
+    }
+
+    private static PublishRequest request(String eventId) {
+        return new PublishRequest(eventId, "orders", "order-42", "{}".getBytes(StandardCharsets.UTF_8),
+            Map.of("content-type", "application/json"));
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.mahdim1000;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A Spring Boot test whose relay keeps polling in the background.
+ *
+ * The context is closed after the class, so its relay stops instead of claiming rows that
+ * later test classes, sharing the same in-memory database, write and assert on.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest(classes = TestApplication.class)
+@DirtiesContext
+@interface RelayTest {
+}
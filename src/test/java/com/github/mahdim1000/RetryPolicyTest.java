@@ -0,0 +1,140 @@
+package com.github.mahdim1000;
+
+import com.github.mahdim1000.api.PublishingException;
+import com.github.mahdim1000.config.OutboxProperties;
+import com.github.mahdim1000.core.ExponentialRetryPolicy;
+import com.github.mahdim1000.core.OutboxManager;
+import com.github.mahdim1000.core.OutboxService;
+import com.github.mahdim1000.core.OutboxStatistics;
+import com.github.mahdim1000.domain.OutboxEntity;
+import com.github.mahdim1000.domain.OutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Retries back off with millisecond precision as configured per topic, and permanent
+ * failures are dead-lettered without retrying.
+ */
+@SpringBootTest(classes = TestApplication.class)
+@TestPropertySource(properties = {
+    "outbox.publisher.type=in-memory",
+    "outbox.processing.enabled=false", // Drive processing manually
+    "outbox.publisher.circuit-breaker.enabled=false",
+    "outbox.retry.initial-delay=PT0.2S",
+    "outbox.retry.jitter=none",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class RetryPolicyTest {
+
+    private static final byte[] PAYLOAD = "{}".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private OutboxManager outboxManager;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRepository repository;
+
+    @Autowired
+    private InMemoryEventPublisher publisher;
+
+    @Autowired
+    private OutboxStatistics statistics;
+
+    @AfterEach
+    void cleanUp() {
+        publisher.setFailing(false);
+        publisher.setRejecting(false);
+        repository.deleteAll();
+        statistics.reconcile(); // deleteAll bypasses the status counters
+    }
+
+    @Test
+    void shouldRetryAfterSubSecondBackoff() throws InterruptedException {
+        // Given
+        outboxManager.publish("retry.topic", "agg-retry", new OutboxLibraryTest.TestEvent("retry me", null))
+                     .execute();
+        publisher.setFailing(true);
+
+        // When
+        outboxService.processPendingMessages();
+
+        // Then
+        var failed = repository.findAll().getFirst();
+        assertThat(failed.getInternalStatus()).isEqualTo(OutboxEntity.Status.FAILED);
+        assertThat(failed.getRetryCount()).isEqualTo(1);
+        assertThat(failed.getLastRetryDelay()).isEqualTo(Duration.ofMillis(200));
+
+        // When - time spent deferred during an outage is not a retry delay
+        failed.defer("Broker unreachable", failed.getNextRetryAt().plusMinutes(5));
+
+        // Then
+        assertThat(failed.getLastRetryDelay()).isEqualTo(Duration.ofMillis(200));
+
+        // When
+        publisher.setFailing(false);
+        Thread.sleep(250);
+        int retried = outboxService.processFailedMessages();
+
+        // Then
+        assertThat(retried).isEqualTo(1);
+        assertThat(repository.findAll().getFirst().getInternalStatus()).isEqualTo(OutboxEntity.Status.PUBLISHED);
+    }
+
+    @Test
+    void shouldDeadLetterPermanentFailuresAtOnce() {
+        // Given
+        outboxManager.publish("retry.topic", "agg-rejected", new OutboxLibraryTest.TestEvent("rejected", null))
+                     .execute();
+        publisher.setRejecting(true);
+
+        // When
+        outboxService.processPendingMessages();
+
+        // Then
+        var rejected = repository.findAll().getFirst();
+        assertThat(rejected.getInternalStatus()).isEqualTo(OutboxEntity.Status.DEAD_LETTER);
+        assertThat(rejected.getRetryCount()).isEqualTo(1);
+        assertThat(rejected.getErrorMessage()).contains("Simulated rejection");
+    }
+
+    @Test
+    void shouldBackOffPerTopicUpToMaxDelay() {
+        // Given
+        var policy = new ExponentialRetryPolicy(new OutboxProperties.Retry(5, Duration.ofMillis(100), 3.0,
+            Duration.ofSeconds(1), OutboxProperties.Jitter.NONE,
+            Map.of("payments", new OutboxProperties.TopicRetry(8, Duration.ofMillis(10), null, null, null))));
+        var orders = OutboxEntity.create("orders", "agg-1", PAYLOAD, "application/json", null, null, 0, true);
+        var payments = OutboxEntity.create("payments", "agg-1", PAYLOAD, "application/json", null, null, 0, true);
+        var failure = new PublishingException("broker unavailable");
+
+        // Then
+        assertThat(policy.nextDelay(orders, 1, null, failure)).isEqualTo(Duration.ofMillis(100));
+        assertThat(policy.nextDelay(orders, 3, null, failure)).isEqualTo(Duration.ofMillis(900));
+        assertThat(policy.nextDelay(orders, 4, null, failure)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(policy.nextDelay(orders, 5, null, failure)).isNull();
+        assertThat(policy.nextDelay(payments, 5, null, failure)).isEqualTo(Duration.ofMillis(810));
+        assertThat(policy.nextDelay(payments, 1, null, new PublishingException("too large", null, false))).isNull();
+
+        // When
+        var decorrelated = new ExponentialRetryPolicy(new OutboxProperties.Retry(5, Duration.ofMillis(100), 3.0,
+            Duration.ofSeconds(1), OutboxProperties.Jitter.DECORRELATED, null));
+
+        // Then
+        for (int i = 0; i < 100; i++) {
+            assertThat(decorrelated.nextDelay(orders, 2, Duration.ofMillis(200), failure))
+                .isBetween(Duration.ofMillis(100), Duration.ofMillis(600));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.mahdim1000;
+
+import com.github.mahdim1000.core.OutboxManager;
+import com.github.mahdim1000.core.OutboxService;
+import com.github.mahdim1000.core.OutboxStatistics;
+import com.github.mahdim1000.core.PublisherCircuitBreaker;
+import com.github.mahdim1000.domain.OutboxEntity;
+import com.github.mahdim1000.domain.OutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * With per-topic breakers, a topic whose circuit is open is left unclaimed while the
+ * others keep flowing, and is claimed again once its probe is due.
+ */
+@SpringBootTest(classes = TestApplication.class)
+@TestPropertySource(properties = {
+    "outbox.publisher.type=in-memory",
+    "outbox.processing.enabled=false", // Drive processing manually
+    "outbox.publisher.circuit-breaker.failure-threshold=3",
+    "outbox.publisher.circuit-breaker.open-duration=PT1S",
+    "outbox.publisher.circuit-breaker.per-topic=true",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class TopicCircuitBreakerTest {
+
+    @Autowired
+    private OutboxManager outboxManager;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRepository repository;
+
+    @Autowired
+    private InMemoryEventPublisher publisher;
+
+    @Autowired
+    private PublisherCircuitBreaker circuitBreaker;
+
+    @Autowired
+    private OutboxStatistics statistics;
+
+    @AfterEach
+    void cleanUp() {
+        publisher.setFailing("down.topic", false);
+        repository.deleteAll();
+        statistics.reconcile(); // deleteAll bypasses the status counters
+    }
+
+    @Test
+    void shouldLeaveOpenTopicUnclaimedUntilProbeIsDue() throws InterruptedException {
+        // Given - failures of one topic interleaved with successes, so only its breaker opens
+        for (int i = 0; i < 3; i++) {
+            publish("down.topic", "down-" + i);
+            publish("up.topic", "up-" + i);
+        }
+        publisher.setFailing("down.topic", true);
+        assertThat(outboxService.processPendingMessages()).isEqualTo(6);
+        assertThat(circuitBreaker.isOpen("down.topic")).isTrue();
+        assertThat(circuitBreaker.isOpen("up.topic")).isFalse();
+
+        // When
+        List<String> waiting = List.of("down-3", "down-4");
+        waiting.forEach(aggregateId -> publish("down.topic", aggregateId));
+        publish("up.topic", "up-3");
+        int claimed = outboxService.processPendingMessages();
+
+        // Then - only the healthy topic was claimed; the open one was not touched
+        assertThat(claimed).isEqualTo(1);
+        assertThat(messagesOf(waiting)).allSatisfy(message -> {
+            assertThat(message.getInternalStatus()).isEqualTo(OutboxEntity.Status.PENDING);
+            assertThat(message.getErrorMessage()).isNull();
+            assertThat(message.getClaimedBy()).isNull();
+        });
+
+        // When
+        publisher.setFailing("down.topic", false);
+        Thread.sleep(1100);
+        int probed = outboxService.processPendingMessages();
+
+        // Then
+        assertThat(probed).isPositive();
+        assertThat(circuitBreaker.isOpen("down.topic")).isFalse();
+        outboxService.processPendingMessages();
+        assertThat(messagesOf(waiting)).allSatisfy(message ->
+            assertThat(message.getInternalStatus()).isEqualTo(OutboxEntity.Status.PUBLISHED));
+    }
+
+    private void publish(String topic, String aggregateId) {
+        outboxManager.publish(topic, aggregateId, new OutboxLibraryTest.TestEvent("event " + aggregateId, null))
+                     .execute();
+    }
+
+    private List<OutboxEntity> messagesOf(List<String> aggregateIds) {
+        return repository.findAll().stream()
+                         .filter(message -> aggregateIds.contains(message.getAggregateId()))
+                         .toList();
+    }
+}
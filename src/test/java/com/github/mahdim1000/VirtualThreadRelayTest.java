@@ -0,0 +1,134 @@
+package com.github.mahdim1000;
+
+import com.github.mahdim1000.api.EventPublisher;
+import com.github.mahdim1000.api.PublishRequest;
+import com.github.mahdim1000.config.OutboxProperties;
+import com.github.mahdim1000.core.OutboxInstrumentation;
+import com.github.mahdim1000.core.OutboxManager;
+import com.github.mahdim1000.core.OutboxService;
+import com.github.mahdim1000.core.PublishDispatcher;
+import com.github.mahdim1000.domain.OutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Relays through the virtual-thread executor, with a concurrency limit below the batch size.
+ * Publishers that batch natively still receive whole batches.
+ */
+@SpringBootTest(classes = TestApplication.class)
+@TestPropertySource(properties = {
+    "outbox.publisher.type=logging",
+    "outbox.processing.enabled=false", // Drive processing manually
+    "outbox.processing.executor=virtual",
+    "outbox.processing.max-concurrency=2",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class VirtualThreadRelayTest {
+
+    @Autowired
+    private OutboxManager outboxManager;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRepository repository;
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void shouldPublishBatchOnVirtualThreads() {
+        // Given
+        for (int i = 0; i < 8; i++) {
+            outboxManager.publish("test.topic", "agg-" + i, new OutboxLibraryTest.TestEvent("message " + i, null))
+                         .execute();
+        }
+        outboxManager.publish("test.topic", "agg-fail", new OutboxLibraryTest.TestEvent("FAIL_TEST", null))
+                     .execute();
+
+        // When
+        outboxService.processPendingMessages();
+
+        // Then
+        var metrics = outboxManager.getMetrics();
+        assertThat(metrics.publishedCount()).isEqualTo(8);
+        assertThat(metrics.failedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldHandNativelyBatchingPublisherWholeBatches() throws Exception {
+        // Given
+        var publisher = new BatchRecordingPublisher();
+        var processing = new OutboxProperties.Processing(null, null, null, null, null, null, null, null, null,
+            OutboxProperties.ExecutorType.VIRTUAL, 2);
+        var dispatcher = new PublishDispatcher(publisher,
+            new OutboxProperties(processing, null, null, null, null, null, null, null, null, null),
+            new DefaultListableBeanFactory().getBeanProvider(OutboxInstrumentation.class));
+        var requests = IntStream.range(0, 5)
+            .mapToObj(i -> new PublishRequest(null, "test.topic", null,
+                ("message " + i).getBytes(StandardCharsets.UTF_8), Map.of()))
+            .toList();
+
+        try {
+            // When
+            var results = dispatcher.dispatch(requests);
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+
+            // Then - batches of at most max-concurrency, never one send per thread
+            assertThat(publisher.batchSizes).containsExactly(2, 2, 1);
+        } finally {
+            dispatcher.destroy();
+        }
+    }
+
+    private static final class BatchRecordingPublisher implements EventPublisher {
+
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+        @Override
+        public List<CompletableFuture<Void>> publishBatch(List<PublishRequest> requests) {
+            batchSizes.add(requests.size());
+            return requests.stream().map(request -> CompletableFuture.<Void>completedFuture(null)).toList();
+        }
+
+        @Override
+        public CompletableFuture<Void> publishAsync(PublishRequest request) {
+            throw new AssertionError("Single send of a natively batching publisher");
+        }
+
+        @Override
+        public void publish(String topic, byte[] payload) {
+            throw new AssertionError("Blocking send of a natively batching publisher");
+        }
+
+        @Override
+        public void publish(String topic, byte[] payload, Map<String, String> headers) {
+            throw new AssertionError("Blocking send of a natively batching publisher");
+        }
+
+        @Override
+        public boolean batchesNatively() { return true; }
+
+        @Override
+        public boolean isHealthy() { return true; }
+
+        @Override
+        public String getType() { return "batching"; }
+    }
+}